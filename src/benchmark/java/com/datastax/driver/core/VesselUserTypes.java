@@ -0,0 +1,33 @@
+package com.datastax.driver.core;
+
+import java.util.Arrays;
+
+/**
+ * Build the vessel UDT without cluster metadata, for benchmarks of UDT codecs (user types can only be instantiated
+ * from the package of the driver).
+ */
+public final class VesselUserTypes {
+
+    /**
+     * Private constructor.
+     */
+    private VesselUserTypes() {
+    }
+
+    /**
+     * Build the vessel UDT, as defined in the vessel schema.
+     *
+     * @return vessel UDT
+     */
+    public static UserType vessel() {
+        return new UserType("vessel", "vessel", true, Arrays.asList(
+                new UserType.Field("name", DataType.text()),
+                new UserType.Field("category", DataType.text()),
+                new UserType.Field("visibility", DataType.text()),
+                new UserType.Field("creation_center", DataType.text()),
+                new UserType.Field("last_departure_port", DataType.text()),
+                new UserType.Field("last_departure_time", DataType.timestamp())),
+                ProtocolVersion.V4, CodecRegistry.DEFAULT_INSTANCE);
+    }
+
+}
@@ -0,0 +1,372 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.UDTValue;
+import com.datastax.driver.core.UserType;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.cassandraunit.CassandraCQLUnit;
+import org.cassandraunit.dataset.cql.ClassPathCQLDataSet;
+import org.cassandraunit.utils.EmbeddedCassandraServerHelper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measure write latency of vessels with the category lookup maintained by a materialized view (base table
+ * read-before-write on replicas) versus maintained by the application into an ordinary table (in the same logged
+ * batch as the vessels table, as {@link VesselService} does), against embedded Cassandra.
+ * <p>
+ * Both layouts are created in keyspaces of their own, and written with the statements that vessel services issue:
+ * "add" writes a new vessel, and "changeCategory" rewrites an existing vessel with another category (which the view
+ * applies by reading the base row, and the application by deleting the former row of the lookup table).
+ * <p>
+ * Run with: mvn verify -Pbenchmark -Dit.test=CategoryLookupWriteBenchmark [-Dbenchmark.vessels=10000]
+ * [-Dbenchmark.concurrency=16] [-Dbenchmark.duration=10] [-Dbenchmark.warmUp=5]
+ */
+public class CategoryLookupWriteBenchmark {
+
+    private static final Long STARTUP_TIMEOUT = 30_000L; // In milliseconds
+    private static final int VESSEL_COUNT = Integer.getInteger("benchmark.vessels", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 16);
+    private static final long DURATION = Long.getLong("benchmark.duration", 10L); // In seconds, per measurement
+    private static final long WARM_UP_DURATION = Long.getLong("benchmark.warmUp", 5L); // In seconds, per measurement
+    private static final int CATEGORY_COUNT = 10;
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String VIEW_KEYSPACE = "vessel_with_view";
+    private static final String TABLE_KEYSPACE = "vessel_with_table";
+
+    @Rule
+    public CassandraCQLUnit cqlUnit = new CassandraCQLUnit(
+            new ClassPathCQLDataSet("vessel_schema.cql", "vessel"),
+            "test-cassandra.yaml", STARTUP_TIMEOUT);
+
+    private final Random random = new Random(42L);
+    private Session session;
+
+    @Before
+    public void init()
+            throws Exception {
+        EmbeddedCassandraServerHelper.startEmbeddedCassandra();
+        this.session = this.cqlUnit.session;
+        for (final String keyspace : new String[]{VIEW_KEYSPACE, TABLE_KEYSPACE}) {
+            this.session.execute("CREATE KEYSPACE " + keyspace
+                    + " WITH REPLICATION = {'class' : 'SimpleStrategy', 'replication_factor' : 1}");
+            this.session.execute("CREATE TYPE " + keyspace + ".vessel (name text, category text, visibility text, "
+                    + "creation_center text, last_departure_port text, last_departure_time timestamp)");
+            this.session.execute("CREATE TABLE " + keyspace + ".vessels (visibility text, uuid UUID, "
+                    + "vessel FROZEN<vessel>, name text, category text, last_departure_port text, "
+                    + "last_departure_time timestamp, PRIMARY KEY (visibility, uuid))");
+        }
+        this.session.execute("CREATE MATERIALIZED VIEW " + VIEW_KEYSPACE + ".vessels_by_category "
+                + "AS SELECT visibility, uuid, vessel, name, category, last_departure_port, last_departure_time "
+                + "FROM vessels WHERE visibility IS NOT NULL AND category IS NOT NULL AND uuid IS NOT NULL "
+                + "PRIMARY KEY ((visibility, category), uuid)");
+        this.session.execute("CREATE TABLE " + TABLE_KEYSPACE + ".vessels_by_category (visibility text, "
+                + "category text, uuid UUID, vessel FROZEN<vessel>, name text, last_departure_port text, "
+                + "last_departure_time timestamp, PRIMARY KEY ((visibility, category), uuid))");
+    }
+
+    @Test
+    public void measure_category_lookup_write_latency() {
+        final List<Result> results = new ArrayList<>();
+        for (final Layout layout : new Layout[]{new ViewLayout(), new TableLayout()}) {
+            final List<UUID> uuids = new ArrayList<>(VESSEL_COUNT);
+            final Semaphore preload = new Semaphore(CONCURRENCY);
+            for (int i = 0; i < VESSEL_COUNT; i++) {
+                final UUID uuid = UUID.randomUUID();
+                uuids.add(uuid);
+                preload.acquireUninterruptibly();
+                CompletableFutures.toCompletableFuture(this.session.executeAsync(layout.add(uuid, this.randomCategory())))
+                        .whenComplete((result, failure) -> preload.release());
+            }
+            preload.acquireUninterruptibly(CONCURRENCY);
+            results.add(this.measure(layout, "add", () -> layout.add(UUID.randomUUID(), this.randomCategory())));
+            results.add(this.measure(layout, "changeCategory", () -> {
+                final UUID uuid = uuids.get(this.random.nextInt(uuids.size()));
+                return layout.changeCategory(uuid, this.randomCategory(), this.randomCategory());
+            }));
+        }
+
+        System.out.printf("Category lookup writes against embedded Cassandra, %d vessel(s), concurrency of %d%n",
+                VESSEL_COUNT, CONCURRENCY);
+        System.out.printf("%-8s %-16s %10s %8s %12s %10s %10s %10s %10s%n", "Lookup", "Operation", "count", "errors",
+                "throughput", "mean (ms)", "p50 (ms)", "p99 (ms)", "max (ms)");
+        for (final Result result : results) {
+            System.out.printf(Locale.ROOT, "%-8s %-16s %10d %8d %12.1f %10.3f %10.3f %10.3f %10.3f%n",
+                    result.layout, result.operation, result.latencies.getTotalCount(), result.errors,
+                    result.latencies.getTotalCount() / (result.elapsed / 1e9),
+                    result.latencies.getMean() / 1e6,
+                    result.latencies.getValueAtPercentile(50.) / 1e6,
+                    result.latencies.getValueAtPercentile(99.) / 1e6,
+                    result.latencies.getMaxValue() / 1e6);
+        }
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.latencies.getTotalCount()).isPositive();
+            assertThat(result.errors).isZero();
+        });
+    }
+
+    /**
+     * Measure write latency of input operation, after warm-up.
+     *
+     * @param layout    layout of category lookup
+     * @param operation operation name
+     * @param write     write statement factory
+     * @return result
+     */
+    private Result measure(final Layout layout, final String operation, final Supplier<Statement> write) {
+        this.run(write, TimeUnit.SECONDS.toNanos(WARM_UP_DURATION), new Recorder(SIGNIFICANT_DIGITS), new LongAdder());
+        final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        final LongAdder errors = new LongAdder();
+        final long elapsed = this.run(write, TimeUnit.SECONDS.toNanos(DURATION), recorder, errors);
+        return new Result(layout.getName(), operation, recorder.getIntervalHistogram(), errors.sum(), elapsed);
+    }
+
+    /**
+     * Execute writes repeatedly for input duration, at the configured concurrency, and wait for all requests to
+     * complete.
+     *
+     * @param write     write statement factory
+     * @param duration  duration, in nanoseconds
+     * @param latencies recorder of latencies, in nanoseconds
+     * @param errors    counter of failed requests
+     * @return elapsed time, in nanoseconds
+     */
+    private long run(final Supplier<Statement> write, final long duration, final Recorder latencies,
+                     final LongAdder errors) {
+        final Semaphore inFlight = new Semaphore(CONCURRENCY);
+        final long start = System.nanoTime();
+        final long end = start + duration;
+        while (System.nanoTime() < end) {
+            inFlight.acquireUninterruptibly();
+            final Statement statement = write.get();
+            final long requestStart = System.nanoTime();
+            CompletableFutures.toCompletableFuture(this.session.executeAsync(statement))
+                    .whenComplete((result, failure) -> {
+                        latencies.recordValue(System.nanoTime() - requestStart);
+                        if (failure != null) {
+                            errors.increment();
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquireUninterruptibly(CONCURRENCY);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Get random vessel category.
+     *
+     * @return vessel category
+     */
+    private String randomCategory() {
+        return String.format("category-%d", this.random.nextInt(CATEGORY_COUNT));
+    }
+
+    /**
+     * Layout of the category lookup, and the statements that write vessels into it.
+     */
+    private abstract class Layout {
+
+        private final String name;
+        private final UserType vesselType;
+        private final PreparedStatement saveIntoVessels;
+
+        /**
+         * Constructor.
+         *
+         * @param name     layout name
+         * @param keyspace keyspace of the layout
+         */
+        Layout(final String name, final String keyspace) {
+            this.name = name;
+            this.vesselType = CategoryLookupWriteBenchmark.this.session.getCluster().getMetadata()
+                    .getKeyspace(keyspace).getUserType("vessel");
+            this.saveIntoVessels = CategoryLookupWriteBenchmark.this.session.prepare("INSERT INTO " + keyspace
+                    + ".vessels (visibility, uuid, vessel, name, category) VALUES ('_ALL', ?, ?, ?, ?)");
+        }
+
+        /**
+         * Get layout name.
+         *
+         * @return layout name
+         */
+        String getName() {
+            return this.name;
+        }
+
+        /**
+         * Get statement that saves vessel with input UUID and category into vessels table.
+         *
+         * @param uuid     UUID
+         * @param category category
+         * @return statement
+         */
+        BoundStatement saveIntoVessels(final UUID uuid, final String category) {
+            final UDTValue vessel = this.vesselType.newValue()
+                    .setString("name", "Vessel " + uuid)
+                    .setString("category", category)
+                    .setString("visibility", "ALL_CENTERS")
+                    .setString("creation_center", "123");
+            return this.saveIntoVessels.bind(uuid, vessel, "Vessel " + uuid, category);
+        }
+
+        /**
+         * Get statement that writes new vessel with input UUID and category.
+         *
+         * @param uuid     UUID
+         * @param category category
+         * @return statement
+         */
+        abstract Statement add(final UUID uuid, final String category);
+
+        /**
+         * Get statement that rewrites vessel with input UUID with another category.
+         *
+         * @param uuid           UUID
+         * @param formerCategory former category
+         * @param category       new category
+         * @return statement
+         */
+        abstract Statement changeCategory(final UUID uuid, final String formerCategory, final String category);
+
+    }
+
+    /**
+     * Category lookup maintained by a materialized view.
+     */
+    private final class ViewLayout
+            extends Layout {
+
+        /**
+         * Constructor.
+         */
+        ViewLayout() {
+            super("view", VIEW_KEYSPACE);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        Statement add(final UUID uuid, final String category) {
+            return this.saveIntoVessels(uuid, category);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        Statement changeCategory(final UUID uuid, final String formerCategory, final String category) {
+            return this.saveIntoVessels(uuid, category);
+        }
+
+    }
+
+    /**
+     * Category lookup maintained by the application, into an ordinary table.
+     */
+    private final class TableLayout
+            extends Layout {
+
+        private final PreparedStatement saveIntoVesselsByCategory;
+        private final PreparedStatement deleteFromVesselsByCategory;
+
+        /**
+         * Constructor.
+         */
+        TableLayout() {
+            super("table", TABLE_KEYSPACE);
+            this.saveIntoVesselsByCategory = CategoryLookupWriteBenchmark.this.session.prepare("INSERT INTO "
+                    + TABLE_KEYSPACE + ".vessels_by_category (visibility, category, uuid, vessel, name) "
+                    + "VALUES ('_ALL', ?, ?, ?, ?)");
+            this.deleteFromVesselsByCategory = CategoryLookupWriteBenchmark.this.session.prepare("DELETE FROM "
+                    + TABLE_KEYSPACE + ".vessels_by_category WHERE visibility = '_ALL' AND category = ? AND uuid = ?");
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        Statement add(final UUID uuid, final String category) {
+            return this.save(new BatchStatement(), uuid, category);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        Statement changeCategory(final UUID uuid, final String formerCategory, final String category) {
+            final BatchStatement batch = new BatchStatement();
+            if (!formerCategory.equals(category)) {
+                batch.add(this.deleteFromVesselsByCategory.bind(formerCategory, uuid));
+            }
+            return this.save(batch, uuid, category);
+        }
+
+        /**
+         * Add saves of vessel with input UUID and category into vessels and vessels by category tables to input batch.
+         *
+         * @param batch    batch
+         * @param uuid     UUID
+         * @param category category
+         * @return batch
+         */
+        private BatchStatement save(final BatchStatement batch, final UUID uuid, final String category) {
+            final BoundStatement saveIntoVessels = this.saveIntoVessels(uuid, category);
+            final UDTValue vessel = saveIntoVessels.getUDTValue(1);
+            return batch.add(saveIntoVessels)
+                    .add(this.saveIntoVesselsByCategory.bind(category, uuid, vessel, "Vessel " + uuid));
+        }
+
+    }
+
+    /**
+     * Result of the measurement of an operation.
+     */
+    private static final class Result {
+
+        private final String layout;
+        private final String operation;
+        private final Histogram latencies;
+        private final long errors;
+        private final long elapsed;
+
+        /**
+         * Constructor.
+         *
+         * @param layout    layout of category lookup
+         * @param operation operation name
+         * @param latencies latencies, in nanoseconds
+         * @param errors    number of failed requests
+         * @param elapsed   elapsed time, in nanoseconds
+         */
+        private Result(final String layout, final String operation, final Histogram latencies, final long errors,
+                       final long elapsed) {
+            this.layout = layout;
+            this.operation = operation;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsed = elapsed;
+        }
+
+    }
+
+}
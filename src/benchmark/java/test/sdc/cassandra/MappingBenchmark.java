@@ -0,0 +1,212 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.UDTValue;
+import com.datastax.driver.core.UserType;
+import com.datastax.driver.core.VesselUserTypes;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import test.sdc.cassandra.model.VesselsByDeparturePortTable;
+import test.sdc.cassandra.model.VesselsByUuidTable;
+import test.sdc.cassandra.model.VesselsTable;
+import test.sdc.cassandra.model.udt.VesselUdt;
+import test.sdc.model.Vessel;
+import test.sdc.model.VesselDeparture;
+import test.sdc.model.VisibilityType;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.sdc.model.VisibilityType.ALL_CENTERS;
+import static test.sdc.model.VisibilityType.CREATION_CENTER_ONLY;
+
+/**
+ * Measure time and allocation rate of conversions between domain data model and entities, which run once per row on
+ * reads and once per table on writes, for a single vessel and for a large batch of vessels.
+ * <p>
+ * Serialization of the vessel UDT is measured both through generic UDT values and through {@link VesselUdtCodec}.
+ * <p>
+ * Run with: mvn verify -Pbenchmark -Dit.test=MappingBenchmark [-Dbenchmark.forks=1]
+ * <p>
+ * Results are reported per invocation, which converts a whole batch ("gc.alloc.rate.norm" is in bytes per batch).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    private static final int FORK_COUNT = Integer.getInteger("benchmark.forks", 1);
+
+    @Param({"1", "10000"})
+    public int batchSize;
+
+    private Vessel[] vessels;
+    private UUID[] uuids;
+    private String[] visibilityKeys;
+    private VesselUdt[] udts;
+    private ByteBuffer[] serializedUdts;
+    private UserType vesselType;
+    private TypeCodec<UDTValue> udtValueCodec;
+    private VesselUdtCodec vesselUdtCodec;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42L);
+        final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        this.vessels = new Vessel[this.batchSize];
+        this.uuids = new UUID[this.batchSize];
+        this.visibilityKeys = new String[this.batchSize];
+        this.udts = new VesselUdt[this.batchSize];
+        this.serializedUdts = new ByteBuffer[this.batchSize];
+        this.vesselType = VesselUserTypes.vessel();
+        this.udtValueCodec = TypeCodec.userType(this.vesselType);
+        this.vesselUdtCodec = new VesselUdtCodec(this.vesselType);
+        final VisibilityKeys keys = VisibilityKeys.of(1, 0);
+        for (int i = 0; i < this.batchSize; i++) {
+            final Vessel.Builder builder = Vessel.newInstance()
+                    .withName(String.format("Vessel %d", i))
+                    .withCategory(String.format("category-%d", random.nextInt(10)))
+                    .withVisibility(random.nextBoolean() ? ALL_CENTERS : CREATION_CENTER_ONLY)
+                    .withCreationCenter(String.format("center-%d", random.nextInt(5)));
+            if (i % 4 != 3) { // Some vessels never departed, but the first one did
+                builder.withDeparture(String.format("port-%d", random.nextInt(50)),
+                        now.minus(random.nextInt(72_000), ChronoUnit.SECONDS));
+            }
+            this.vessels[i] = builder.build();
+            this.uuids[i] = UUID.fromString(this.vessels[i].getUuid());
+            this.visibilityKeys[i] = keys.of(this.uuids[i], this.vessels[i]);
+            this.udts[i] = VesselUdt.from(this.vessels[i]);
+            this.serializedUdts[i] = this.vesselUdtCodec.serialize(this.vessels[i]);
+        }
+    }
+
+    @Test
+    public void measure_mapping_layer()
+            throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(MappingBenchmark.class.getName().replace(".", "\\.") + "\\.")
+                .forks(FORK_COUNT)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        final Collection<RunResult> results = new Runner(options).run();
+
+        assertThat(results).isNotEmpty();
+    }
+
+    @Benchmark
+    public void vesselBuild(final Blackhole blackhole) {
+        for (final Vessel vessel : this.vessels) {
+            final Vessel.Builder builder = Vessel.fromUuid(vessel.getUuid())
+                    .withName(vessel.getName())
+                    .withCategory(vessel.getCategory().getUuid())
+                    .withVisibility(vessel.getVisibility())
+                    .withCreationCenter(vessel.getCreationCenter().getUuid());
+            if (vessel.getLastDeparture().isPresent()) {
+                final VesselDeparture departure = vessel.getLastDeparture().get();
+                builder.withDeparture(departure.getDeparturePort().getUuid(), departure.getDepartureTime());
+            }
+            blackhole.consume(builder.build());
+        }
+    }
+
+    @Benchmark
+    public void vesselUdtFrom(final Blackhole blackhole) {
+        for (final Vessel vessel : this.vessels) {
+            blackhole.consume(VesselUdt.from(vessel));
+        }
+    }
+
+    @Benchmark
+    public void vesselUdtToDomainModel(final Blackhole blackhole) {
+        for (int i = 0; i < this.batchSize; i++) {
+            blackhole.consume(this.udts[i].toDomainModel(this.uuids[i]));
+        }
+    }
+
+    @Benchmark
+    public void vesselsTableFrom(final Blackhole blackhole) {
+        for (int i = 0; i < this.batchSize; i++) {
+            blackhole.consume(VesselsTable.from(this.uuids[i], this.vessels[i], this.visibilityKeys[i]));
+        }
+    }
+
+    @Benchmark
+    public void vesselsByUuidTableFrom(final Blackhole blackhole) {
+        for (int i = 0; i < this.batchSize; i++) {
+            blackhole.consume(VesselsByUuidTable.from(this.uuids[i], this.vessels[i]));
+        }
+    }
+
+    @Benchmark
+    public void vesselsByDeparturePortTableFrom(final Blackhole blackhole) {
+        for (int i = 0; i < this.batchSize; i++) {
+            if (this.vessels[i].getLastDeparture().isPresent()) {
+                blackhole.consume(VesselsByDeparturePortTable.from(this.uuids[i], this.vessels[i]));
+            }
+        }
+    }
+
+    @Benchmark
+    public void udtValueSerialize(final Blackhole blackhole) {
+        for (final Vessel vessel : this.vessels) {
+            final UDTValue value = this.vesselType.newValue()
+                    .setString("name", vessel.getName())
+                    .setString("category", vessel.getCategory().getUuid())
+                    .setString("visibility", vessel.getVisibility().name())
+                    .setString("creation_center", vessel.getCreationCenter().getUuid());
+            vessel.getLastDeparture().ifPresent(lastDeparture -> value
+                    .setString("last_departure_port", lastDeparture.getDeparturePort().getUuid())
+                    .setTimestamp("last_departure_time", Date.from(lastDeparture.getDepartureTime())));
+            blackhole.consume(this.udtValueCodec.serialize(value, ProtocolVersion.V4));
+        }
+    }
+
+    @Benchmark
+    public void udtValueDeserialize(final Blackhole blackhole) {
+        for (int i = 0; i < this.batchSize; i++) {
+            final UDTValue value = this.udtValueCodec.deserialize(this.serializedUdts[i], ProtocolVersion.V4);
+            final Vessel.Builder builder = Vessel.fromUuid(this.uuids[i].toString())
+                    .withName(value.getString(0))
+                    .withCategory(value.getString(1))
+                    .withVisibility(VisibilityType.valueOf(value.getString(2)))
+                    .withCreationCenter(value.getString(3));
+            if (!value.isNull(4) || !value.isNull(5)) {
+                builder.withDeparture(value.getString(4), value.getTimestamp(5).toInstant());
+            }
+            blackhole.consume(builder.build());
+        }
+    }
+
+    @Benchmark
+    public void vesselUdtCodecSerialize(final Blackhole blackhole) {
+        for (final Vessel vessel : this.vessels) {
+            blackhole.consume(this.vesselUdtCodec.serialize(vessel));
+        }
+    }
+
+    @Benchmark
+    public void vesselUdtCodecDeserialize(final Blackhole blackhole) {
+        for (int i = 0; i < this.batchSize; i++) {
+            blackhole.consume(this.vesselUdtCodec.deserialize(this.uuids[i].toString(), this.serializedUdts[i]));
+        }
+    }
+
+}
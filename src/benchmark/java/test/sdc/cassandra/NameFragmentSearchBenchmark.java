@@ -0,0 +1,138 @@
+package test.sdc.cassandra;
+
+import org.cassandraunit.CassandraCQLUnit;
+import org.cassandraunit.dataset.cql.ClassPathCQLDataSet;
+import org.cassandraunit.utils.EmbeddedCassandraServerHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.sdc.model.CenterReference;
+import test.sdc.model.Vessel;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.sdc.model.VisibilityType.ALL_CENTERS;
+import static test.sdc.model.VisibilityType.CREATION_CENTER_ONLY;
+
+/**
+ * Compare latency of name fragment searches with SASI index and with in-memory index.
+ * <p>
+ * Run with: mvn verify -Pbenchmark -Dit.test=NameFragmentSearchBenchmark [-Dbenchmark.vessels=10000]
+ * [-Dbenchmark.searches=500]
+ */
+public class NameFragmentSearchBenchmark {
+
+    private static final Long STARTUP_TIMEOUT = 30_000L; // In milliseconds
+    private static final int VESSEL_COUNT = Integer.getInteger("benchmark.vessels", 10_000);
+    private static final int SEARCH_COUNT = Integer.getInteger("benchmark.searches", 500);
+    private static final int WARM_UP_COUNT = 50;
+    private static final int MAX_PRELOAD_REQUESTS_IN_FLIGHT = 4;
+    private static final String[] WORDS = {"Atlantic", "Pacific", "Star", "Queen", "Spirit", "Ocean", "Nordic",
+            "Express", "Pioneer", "Horizon", "Trader", "Explorer", "Voyager", "Harmony", "Liberty", "Fortune"};
+
+    @Rule
+    public CassandraCQLUnit cqlUnit = new CassandraCQLUnit(
+            new ClassPathCQLDataSet("vessel_schema.cql", "vessel"),
+            "test-cassandra.yaml", STARTUP_TIMEOUT);
+
+    private final Random random = new Random(42L);
+    private VesselService service;
+
+    @Before
+    public void init()
+            throws Exception {
+        EmbeddedCassandraServerHelper.startEmbeddedCassandra();
+        this.service = new VesselService();
+        this.service.setSession(EmbeddedCassandraServerHelper.getSession());
+        this.service.setMaxBulkRequestsInFlight(MAX_PRELOAD_REQUESTS_IN_FLIGHT);
+        this.service.postConstruct();
+    }
+
+    @After
+    public void dispose() {
+        this.service.preDestroy();
+    }
+
+    @Test
+    public void compare_SASI_and_in_memory_index() {
+        final CenterReference center = CenterReference.of("center-0");
+        final List<Vessel> vessels = new ArrayList<>(VESSEL_COUNT);
+        for (int i = 0; i < VESSEL_COUNT; i++) {
+            vessels.add(Vessel.newInstance()
+                    .withName(String.format("%s %s %d", randomWord(), randomWord(), i))
+                    .withCategory("Cargo")
+                    .withVisibility(i % 10 == 0 ? CREATION_CENTER_ONLY : ALL_CENTERS)
+                    .withCreationCenter(String.format("center-%d", i % 5))
+                    .build());
+        }
+        assertThat(this.service.addAll(vessels)).isEmpty();
+        final List<String> fragments = new ArrayList<>(SEARCH_COUNT);
+        for (int i = 0; i < SEARCH_COUNT; i++) {
+            final String word = randomWord();
+            final int start = this.random.nextInt(word.length() - 3);
+            fragments.add(word.substring(start, start + 3 + this.random.nextInt(word.length() - start - 3 + 1)));
+        }
+
+        final long[] sasiLatencies = this.measure(fragments, fragment -> this.service.findByNameFragment(center, fragment));
+        this.service.preDestroy();
+        this.service.setNameFragmentIndexEnabled(true);
+        final long loadStart = System.nanoTime();
+        this.service.postConstruct();
+        final long loadTime = System.nanoTime() - loadStart;
+        final long[] indexLatencies = this.measure(fragments, fragment -> this.service.findByNameFragment(center, fragment));
+
+        System.out.printf("Name fragment search over %d vessel(s), %d search(es)%n", VESSEL_COUNT, SEARCH_COUNT);
+        System.out.printf("%-10s %10s %10s %10s %10s%n", "Path", "mean (ms)", "p50 (ms)", "p99 (ms)", "max (ms)");
+        print("SASI", sasiLatencies);
+        print("Index", indexLatencies);
+        System.out.printf("Index loaded in %.1f ms%n", loadTime / 1e6);
+    }
+
+    /**
+     * Measure latency of input search for each input fragment, after warm-up.
+     *
+     * @param fragments name fragments
+     * @param search    search
+     * @return sorted latencies, in nanoseconds
+     */
+    private long[] measure(final List<String> fragments, final Function<String, List<Vessel>> search) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            search.apply(fragments.get(i % fragments.size()));
+        }
+        final long[] res = new long[fragments.size()];
+        for (int i = 0; i < fragments.size(); i++) {
+            final long start = System.nanoTime();
+            search.apply(fragments.get(i));
+            res[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(res);
+        return res;
+    }
+
+    /**
+     * Print statistics of input latencies.
+     *
+     * @param path      search path
+     * @param latencies sorted latencies, in nanoseconds
+     */
+    private static void print(final String path, final long[] latencies) {
+        System.out.printf("%-10s %10.3f %10.3f %10.3f %10.3f%n", path,
+                Arrays.stream(latencies).average().orElse(0.) / 1e6,
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) Math.ceil(latencies.length * .99) - 1] / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Get random word.
+     *
+     * @return random word
+     */
+    private String randomWord() {
+        return WORDS[this.random.nextInt(WORDS.length)];
+    }
+
+}
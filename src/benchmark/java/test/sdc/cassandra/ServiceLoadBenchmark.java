@@ -0,0 +1,370 @@
+package test.sdc.cassandra;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.cassandraunit.CassandraCQLUnit;
+import org.cassandraunit.dataset.cql.ClassPathCQLDataSet;
+import org.cassandraunit.utils.EmbeddedCassandraServerHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import test.sdc.model.CenterReference;
+import test.sdc.model.PortReference;
+import test.sdc.model.Vessel;
+import test.sdc.model.VesselCategoryReference;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static test.sdc.model.VisibilityType.ALL_CENTERS;
+import static test.sdc.model.VisibilityType.CREATION_CENTER_ONLY;
+
+/**
+ * Measure throughput and latency of each vessel service operation against embedded Cassandra, either at a fixed
+ * concurrency (closed loop) or at a target rate (open loop, with latencies measured from the intended start time of
+ * requests so that queueing delays are not omitted).
+ * <p>
+ * Run with: mvn verify -Pbenchmark -Dit.test=ServiceLoadBenchmark [-Dbenchmark.vessels=10000]
+ * [-Dbenchmark.centers=10] [-Dbenchmark.ports=20] [-Dbenchmark.concurrency=16] [-Dbenchmark.rate=0]
+ * [-Dbenchmark.duration=10] [-Dbenchmark.warmUp=5] [-Dbenchmark.operations=find,findAll,...] [-Dbenchmark.caches=true]
+ * [-Dbenchmark.output=target/service-load-benchmark.csv]
+ * <p>
+ * Results are written as CSV (one row per operation, latencies in microseconds), so that runs can be compared.
+ */
+public class ServiceLoadBenchmark {
+
+    private static final Long STARTUP_TIMEOUT = 30_000L; // In milliseconds
+    private static final int VESSEL_COUNT = Integer.getInteger("benchmark.vessels", 10_000);
+    private static final int CENTER_COUNT = Integer.getInteger("benchmark.centers", 10);
+    private static final int PORT_COUNT = Integer.getInteger("benchmark.ports", 20);
+    private static final int CATEGORY_COUNT = 10;
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 16);
+    private static final int TARGET_RATE = Integer.getInteger("benchmark.rate", 0); // In operations per second, 0 for closed loop
+    private static final long DURATION = Long.getLong("benchmark.duration", 10L); // In seconds, per operation
+    private static final long WARM_UP_DURATION = Long.getLong("benchmark.warmUp", 5L); // In seconds, per operation
+    private static final boolean CACHES_ENABLED = Boolean.parseBoolean(System.getProperty("benchmark.caches", "true"));
+    private static final String OPERATIONS = System.getProperty("benchmark.operations", "");
+    private static final String OUTPUT = System.getProperty("benchmark.output", "target/service-load-benchmark.csv");
+    private static final int MAX_PRELOAD_REQUESTS_IN_FLIGHT = 4;
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String[] WORDS = {"Atlantic", "Pacific", "Star", "Queen", "Spirit", "Ocean", "Nordic",
+            "Express", "Pioneer", "Horizon", "Trader", "Explorer", "Voyager", "Harmony", "Liberty", "Fortune"};
+
+    @Rule
+    public CassandraCQLUnit cqlUnit = new CassandraCQLUnit(
+            new ClassPathCQLDataSet("vessel_schema.cql", "vessel"),
+            "test-cassandra.yaml", STARTUP_TIMEOUT);
+
+    private final Random random = new Random(42L);
+    private final List<String> uuids = new ArrayList<>(VESSEL_COUNT);
+    private VesselService service;
+
+    @Before
+    public void init()
+            throws Exception {
+        EmbeddedCassandraServerHelper.startEmbeddedCassandra();
+        this.service = new VesselService();
+        this.service.setSession(EmbeddedCassandraServerHelper.getSession());
+        this.service.setMaxBulkRequestsInFlight(MAX_PRELOAD_REQUESTS_IN_FLIGHT);
+        this.service.setVesselCacheEnabled(CACHES_ENABLED);
+        this.service.setVisibilityCacheEnabled(CACHES_ENABLED);
+        this.service.postConstruct();
+        final List<Vessel> vessels = new ArrayList<>(VESSEL_COUNT);
+        for (int i = 0; i < VESSEL_COUNT; i++) {
+            final Vessel vessel = this.randomVessel(Vessel.newInstance());
+            vessels.add(vessel);
+            this.uuids.add(vessel.getUuid());
+        }
+        assertThat(this.service.updateAll(vessels)).isEmpty();
+    }
+
+    @After
+    public void dispose() {
+        this.service.preDestroy();
+    }
+
+    @Test
+    public void measure_vessel_service_operations()
+            throws IOException {
+        final Queue<String> removableUuids = new ConcurrentLinkedQueue<>(this.shuffledUuids());
+        final Map<String, Supplier<CompletableFuture<?>>> operations = new LinkedHashMap<>();
+        operations.put("find", () -> this.service.findAsync(this.randomUuid()));
+        operations.put("findAll", () -> this.service.findAllAsync(this.randomCenter()));
+        operations.put("findByNameFragment",
+                () -> this.service.findByNameFragmentAsync(this.randomCenter(), this.randomNameFragment()));
+        operations.put("findByCategory",
+                () -> this.service.findByCategoryAsync(this.randomCenter(), this.randomCategory()));
+        operations.put("findAllSummaries", () -> this.service.findAllSummariesAsync(this.randomCenter()));
+        operations.put("findSummariesByNameFragment",
+                () -> this.service.findSummariesByNameFragmentAsync(this.randomCenter(), this.randomNameFragment()));
+        operations.put("findSummariesByCategory",
+                () -> this.service.findSummariesByCategoryAsync(this.randomCenter(), this.randomCategory()));
+        operations.put("findByDeparturePort", () -> this.service.findByDeparturePortAsync(this.randomPort()));
+        operations.put("add", () -> this.service.addAsync(this.randomVessel(Vessel.newInstance())));
+        operations.put("update", () -> this.service.updateAsync(this.randomVessel(Vessel.fromUuid(this.randomUuid()))));
+        operations.put("remove", () -> {
+            final String uuid = removableUuids.poll();
+            return this.service.removeAsync(uuid == null ? UUID.randomUUID().toString() : uuid);
+        });
+        final Set<String> selected = Arrays.stream(OPERATIONS.split(","))
+                .map(String::trim)
+                .filter(operation -> !operation.isEmpty())
+                .collect(Collectors.toSet());
+
+        final List<Result> results = new ArrayList<>();
+        operations.forEach((operation, call) -> {
+            if (selected.isEmpty() || selected.contains(operation)) {
+                results.add(this.measure(operation, call));
+            }
+        });
+
+        System.out.printf("Load against embedded Cassandra, %d vessel(s), %d center(s), %d port(s), caches %s, %s%n",
+                VESSEL_COUNT, CENTER_COUNT, PORT_COUNT, CACHES_ENABLED ? "enabled" : "disabled", TARGET_RATE > 0
+                        ? String.format("target rate of %d op/s (at most %d in flight)", TARGET_RATE, CONCURRENCY)
+                        : String.format("concurrency of %d", CONCURRENCY));
+        System.out.printf("%-28s %10s %8s %12s %10s %10s %10s %10s %10s%n", "Operation", "count", "errors",
+                "throughput", "mean (ms)", "p50 (ms)", "p99 (ms)", "p99.9 (ms)", "max (ms)");
+        for (final Result result : results) {
+            System.out.printf(Locale.ROOT, "%-28s %10d %8d %12.1f %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    result.operation, result.latencies.getTotalCount(), result.errors, result.getThroughput(),
+                    result.latencies.getMean() / 1e6,
+                    result.latencies.getValueAtPercentile(50.) / 1e6,
+                    result.latencies.getValueAtPercentile(99.) / 1e6,
+                    result.latencies.getValueAtPercentile(99.9) / 1e6,
+                    result.latencies.getMaxValue() / 1e6);
+        }
+        final Path output = write(Paths.get(OUTPUT), results);
+        System.out.printf("Results written to %s%n", output.toAbsolutePath());
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.latencies.getTotalCount()).isPositive();
+            assertThat(result.errors).isZero();
+        });
+    }
+
+    /**
+     * Measure throughput and latency of input operation, after warm-up.
+     *
+     * @param operation operation name
+     * @param call      execution of operation
+     * @return result
+     */
+    private Result measure(final String operation, final Supplier<CompletableFuture<?>> call) {
+        this.run(call, TimeUnit.SECONDS.toNanos(WARM_UP_DURATION), new Recorder(SIGNIFICANT_DIGITS), new LongAdder());
+        final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        final LongAdder errors = new LongAdder();
+        final long elapsed = this.run(call, TimeUnit.SECONDS.toNanos(DURATION), recorder, errors);
+        return new Result(operation, recorder.getIntervalHistogram(), errors.sum(), elapsed);
+    }
+
+    /**
+     * Execute input operation repeatedly for input duration, at the configured concurrency or target rate, and wait
+     * for all requests to complete.
+     *
+     * @param call      execution of operation
+     * @param duration  duration, in nanoseconds
+     * @param latencies recorder of latencies, in nanoseconds
+     * @param errors    counter of failed requests
+     * @return elapsed time, in nanoseconds
+     */
+    private long run(final Supplier<CompletableFuture<?>> call, final long duration, final Recorder latencies,
+                     final LongAdder errors) {
+        final Semaphore inFlight = new Semaphore(CONCURRENCY);
+        final long interval = TARGET_RATE > 0 ? TimeUnit.SECONDS.toNanos(1L) / TARGET_RATE : 0L;
+        final long start = System.nanoTime();
+        final long end = start + duration;
+        long intendedStart = start;
+        while (intendedStart < end) {
+            if (interval > 0L) {
+                LockSupport.parkNanos(intendedStart - System.nanoTime());
+            }
+            inFlight.acquireUninterruptibly();
+            final long requestStart = interval > 0L ? intendedStart : System.nanoTime();
+            CompletableFuture<?> future;
+            try {
+                future = call.get();
+            } catch (final RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            future.whenComplete((result, failure) -> {
+                latencies.recordValue(System.nanoTime() - requestStart);
+                if (failure != null) {
+                    errors.increment();
+                }
+                inFlight.release();
+            });
+            intendedStart = interval > 0L ? intendedStart + interval : System.nanoTime();
+        }
+        inFlight.acquireUninterruptibly(CONCURRENCY);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Write input results to input file, as CSV.
+     *
+     * @param output  output file
+     * @param results results
+     * @return output file
+     * @throws IOException if results cannot be written
+     */
+    private static Path write(final Path output, final List<Result> results)
+            throws IOException {
+        final List<String> lines = new ArrayList<>();
+        lines.add("operation,vessels,centers,ports,caches,concurrency,target_rate,duration_s,count,errors,throughput_ops,"
+                + "mean_us,p50_us,p90_us,p99_us,p999_us,max_us");
+        for (final Result result : results) {
+            final Histogram latencies = result.latencies;
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%d,%b,%d,%d,%.3f,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f",
+                    result.operation, VESSEL_COUNT, CENTER_COUNT, PORT_COUNT, CACHES_ENABLED, CONCURRENCY, TARGET_RATE,
+                    result.elapsed / 1e9, latencies.getTotalCount(), result.errors, result.getThroughput(),
+                    latencies.getMean() / 1e3,
+                    latencies.getValueAtPercentile(50.) / 1e3,
+                    latencies.getValueAtPercentile(90.) / 1e3,
+                    latencies.getValueAtPercentile(99.) / 1e3,
+                    latencies.getValueAtPercentile(99.9) / 1e3,
+                    latencies.getMaxValue() / 1e3));
+        }
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        return Files.write(output, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Build random vessel.
+     *
+     * @param builder builder, initialized with vessel UUID
+     * @return vessel
+     */
+    private Vessel randomVessel(final Vessel.Builder builder) {
+        return builder
+                .withName(String.format("%s %s %d", this.randomWord(), this.randomWord(), this.random.nextInt(1_000_000)))
+                .withCategory(this.randomCategory())
+                .withVisibility(this.random.nextInt(10) == 0 ? CREATION_CENTER_ONLY : ALL_CENTERS)
+                .withCreationCenter(this.randomCenter())
+                .withDeparture(this.randomPort(), Instant.now()
+                        .truncatedTo(ChronoUnit.MILLIS)
+                        .minus(this.random.nextInt(72_000), ChronoUnit.SECONDS))
+                .build();
+    }
+
+    /**
+     * Get UUIDs of preloaded vessels, in random order.
+     *
+     * @return UUIDs
+     */
+    private List<String> shuffledUuids() {
+        final List<String> res = new ArrayList<>(this.uuids);
+        Collections.shuffle(res, this.random);
+        return res;
+    }
+
+    /**
+     * Get UUID of a random preloaded vessel.
+     *
+     * @return UUID
+     */
+    private String randomUuid() {
+        return this.uuids.get(this.random.nextInt(this.uuids.size()));
+    }
+
+    /**
+     * Get random center.
+     *
+     * @return center
+     */
+    private CenterReference randomCenter() {
+        return CenterReference.of(String.format("center-%d", this.random.nextInt(CENTER_COUNT)));
+    }
+
+    /**
+     * Get random port.
+     *
+     * @return port
+     */
+    private PortReference randomPort() {
+        return PortReference.of(String.format("port-%d", this.random.nextInt(PORT_COUNT)));
+    }
+
+    /**
+     * Get random vessel category.
+     *
+     * @return vessel category
+     */
+    private VesselCategoryReference randomCategory() {
+        return VesselCategoryReference.of(String.format("category-%d", this.random.nextInt(CATEGORY_COUNT)));
+    }
+
+    /**
+     * Get random name fragment, of at least 3 characters.
+     *
+     * @return name fragment
+     */
+    private String randomNameFragment() {
+        final String word = this.randomWord();
+        final int start = this.random.nextInt(word.length() - 3);
+        return word.substring(start, start + 3 + this.random.nextInt(word.length() - start - 3 + 1));
+    }
+
+    /**
+     * Get random word.
+     *
+     * @return random word
+     */
+    private String randomWord() {
+        return WORDS[this.random.nextInt(WORDS.length)];
+    }
+
+    /**
+     * Result of the measurement of an operation.
+     */
+    private static final class Result {
+
+        private final String operation;
+        private final Histogram latencies;
+        private final long errors;
+        private final long elapsed;
+
+        /**
+         * Constructor.
+         *
+         * @param operation operation name
+         * @param latencies latencies, in nanoseconds
+         * @param errors    number of failed requests
+         * @param elapsed   elapsed time, in nanoseconds
+         */
+        private Result(final String operation, final Histogram latencies, final long errors, final long elapsed) {
+            this.operation = operation;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Get throughput.
+         *
+         * @return throughput, in operations per second
+         */
+        private double getThroughput() {
+            return this.latencies.getTotalCount() * 1e9 / this.elapsed;
+        }
+
+    }
+
+}
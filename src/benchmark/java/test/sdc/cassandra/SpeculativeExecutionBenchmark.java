@@ -0,0 +1,229 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolOptions;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.simulacron.common.cluster.AbstractNode;
+import com.datastax.oss.simulacron.common.cluster.ClusterSpec;
+import com.datastax.oss.simulacron.common.stubbing.Prime;
+import com.datastax.oss.simulacron.server.BoundCluster;
+import com.datastax.oss.simulacron.server.BoundNode;
+import com.datastax.oss.simulacron.server.Server;
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.netty.util.HashedWheelTimer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.datastax.oss.simulacron.common.stubbing.PrimeDsl.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare read latency with and without speculative execution, against a simulated 2-node cluster where one node
+ * intermittently responds late (as during a GC pause or a compaction).
+ * <p>
+ * Run with: mvn verify -Pbenchmark -Dit.test=SpeculativeExecutionBenchmark [-Dbenchmark.requests=5000]
+ */
+public class SpeculativeExecutionBenchmark {
+
+    private static final int REQUEST_COUNT = Integer.getInteger("benchmark.requests", 5_000);
+    private static final int VESSEL_COUNT = 200;
+    private static final int SLOW_VESSEL_COUNT = 6; // About 3% of the requests to the slow node
+    private static final long RESPONSE_DELAY = 1L; // In milliseconds, as percentiles are tracked in milliseconds
+    private static final long SLOW_RESPONSE_DELAY = 50L; // In milliseconds
+    private static final long TRACKING_INTERVAL = 3_000L; // In milliseconds
+    private static final int MAX_REQUESTS_IN_FLIGHT = 4;
+    private static final double PERCENTILE = 95.;
+    private static final String QUERY = "SELECT uuid FROM vessels_by_uuid WHERE uuid = ?";
+
+    private final Random random = new Random(42L);
+    private final List<UUID> uuids = new ArrayList<>(VESSEL_COUNT);
+    private Server server;
+    private BoundCluster cluster;
+
+    @Before
+    public void init() {
+        this.server = Server.builder()
+                .withTimer(new HashedWheelTimer(1L, TimeUnit.MILLISECONDS))
+                .build();
+        this.cluster = this.server.register(ClusterSpec.builder().withNodes(2));
+        final BoundNode slowNode = this.cluster.getNodes().stream()
+                .skip(1L)
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        for (int i = 0; i < VESSEL_COUNT; i++) {
+            final UUID uuid = UUID.randomUUID();
+            this.uuids.add(uuid);
+            if (i < SLOW_VESSEL_COUNT) {
+                this.cluster.getStubStore()
+                        .register(new NodePrime(prime(uuid, SLOW_RESPONSE_DELAY), node -> node == slowNode));
+                this.cluster.getStubStore()
+                        .register(new NodePrime(prime(uuid, RESPONSE_DELAY), node -> node != slowNode));
+            } else {
+                this.cluster.prime(prime(uuid, RESPONSE_DELAY));
+            }
+        }
+    }
+
+    /**
+     * Prime read of input vessel.
+     *
+     * @param uuid  UUID
+     * @param delay response delay, in milliseconds
+     * @return prime
+     */
+    private static Prime prime(final UUID uuid, final long delay) {
+        return when(query(QUERY, Collections.emptyList(),
+                Collections.singletonMap("uuid", uuid), Collections.singletonMap("uuid", "uuid")))
+                .then(rows().row("uuid", uuid).columnTypes("uuid", "uuid"))
+                .delay(delay, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @After
+    public void dispose() {
+        this.server.close();
+    }
+
+    @Test
+    public void compare_latency_with_and_without_speculative_execution() {
+        final long[] withoutSpeculation = this.measure(0, true);
+        final long[] withSpeculation = this.measure(2, true);
+        final long[] nonIdempotent = this.measure(2, false);
+
+        System.out.printf("Reads against a 2-node cluster, %d request(s), %.1f%% of them delayed by %dms%n",
+                REQUEST_COUNT, 50. * SLOW_VESSEL_COUNT / VESSEL_COUNT, SLOW_RESPONSE_DELAY);
+        System.out.printf("%-28s %10s %10s %10s %10s%n", "Configuration", "mean (ms)", "p50 (ms)", "p99 (ms)", "max (ms)");
+        print("No speculative execution", withoutSpeculation);
+        print(String.format("Speculative execution (p%s)", PERCENTILE), withSpeculation);
+        print("Non-idempotent statements", nonIdempotent);
+        assertThat(percentile(withSpeculation, 99.)).isLessThan(percentile(withoutSpeculation, 99.) / 2);
+        assertThat(percentile(nonIdempotent, 99.)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(SLOW_RESPONSE_DELAY));
+    }
+
+    /**
+     * Measure latency of reads through a session that is configured with input speculative execution settings, once
+     * latency percentiles of the first tracking intervals are available.
+     *
+     * @param maxSpeculativeExecutions maximum number of speculative executions
+     * @param idempotent               are reads marked as idempotent
+     * @return sorted latencies, in nanoseconds
+     */
+    private long[] measure(final int maxSpeculativeExecutions, final boolean idempotent) {
+        final InetSocketAddress contactPoint = this.cluster.getNodes().iterator().next().inetSocketAddress();
+        final CassandraSessionProducer sessionProducer = new CassandraSessionProducer();
+        sessionProducer.setConfiguration(CassandraConfiguration.newInstance()
+                .withContactPoints(Collections.singletonList(contactPoint.getHostString()))
+                .withPort(contactPoint.getPort())
+                .withCompression(ProtocolOptions.Compression.NONE)
+                .withMaxSpeculativeExecutions(maxSpeculativeExecutions)
+                .withSpeculativeExecutionPercentile(PERCENTILE)
+                .withSpeculativeExecutionIntervalMillis(TRACKING_INTERVAL)
+                .build());
+        sessionProducer.init();
+        try {
+            final Session session = sessionProducer.getSession();
+            final PreparedStatement statement = session.prepare(QUERY);
+            final Function<UUID, CompletableFuture<ResultSet>> read = uuid -> CompletableFutures.toCompletableFuture(
+                    session.executeAsync(statement.bind(uuid).setIdempotent(idempotent)));
+            final Semaphore inFlight = new Semaphore(MAX_REQUESTS_IN_FLIGHT);
+            final long warmUpEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2 * TRACKING_INTERVAL + 500L);
+            while (System.nanoTime() < warmUpEnd) {
+                inFlight.acquireUninterruptibly();
+                read.apply(this.randomUuid()).whenComplete((result, failure) -> inFlight.release());
+            }
+            final long[] res = new long[REQUEST_COUNT];
+            final CountDownLatch done = new CountDownLatch(REQUEST_COUNT);
+            for (int i = 0; i < REQUEST_COUNT; i++) {
+                final int index = i;
+                inFlight.acquireUninterruptibly();
+                final long start = System.nanoTime();
+                read.apply(this.randomUuid()).whenComplete((result, failure) -> {
+                    res[index] = System.nanoTime() - start;
+                    inFlight.release();
+                    done.countDown();
+                });
+            }
+            Uninterruptibles.awaitUninterruptibly(done);
+            Arrays.sort(res);
+            return res;
+        } finally {
+            sessionProducer.dispose();
+        }
+    }
+
+    /**
+     * Get input percentile of input latencies.
+     *
+     * @param latencies  sorted latencies, in nanoseconds
+     * @param percentile percentile
+     * @return latency, in nanoseconds
+     */
+    private static long percentile(final long[] latencies, final double percentile) {
+        return latencies[(int) Math.ceil(latencies.length * percentile / 100.) - 1];
+    }
+
+    /**
+     * Print statistics of input latencies.
+     *
+     * @param configuration configuration
+     * @param latencies     sorted latencies, in nanoseconds
+     */
+    private static void print(final String configuration, final long[] latencies) {
+        System.out.printf("%-28s %10.3f %10.3f %10.3f %10.3f%n", configuration,
+                Arrays.stream(latencies).average().orElse(0.) / 1e6,
+                percentile(latencies, 50.) / 1e6,
+                percentile(latencies, 99.) / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Get UUID of a random vessel.
+     *
+     * @return UUID
+     */
+    private UUID randomUuid() {
+        return this.uuids.get(this.random.nextInt(this.uuids.size()));
+    }
+
+    /**
+     * Prime that only applies to some nodes.
+     */
+    private static final class NodePrime
+            extends Prime {
+
+        private final Predicate<AbstractNode> nodes;
+
+        /**
+         * Constructor.
+         *
+         * @param prime prime
+         * @param nodes nodes the prime applies to
+         */
+        private NodePrime(final Prime prime, final Predicate<AbstractNode> nodes) {
+            super(prime.getPrimedRequest());
+            this.nodes = nodes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean matches(final AbstractNode node, final Frame frame) {
+            return this.nodes.test(node) && super.matches(node, frame);
+        }
+
+    }
+
+}
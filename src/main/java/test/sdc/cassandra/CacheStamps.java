@@ -0,0 +1,59 @@
+package test.sdc.cassandra;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Invalidation stamps of the entries of an in-process cache, which prevent reads that started before a write from
+ * caching what they read once the write has invalidated the entry.
+ * <p>
+ * A stamp is taken before an entry is read from Cassandra, and the entry is cached only if its stamp is unchanged
+ * once it has been read: writes change the stamps of the entries they invalidate. Stamps are striped by key, so that
+ * a write may also prevent reads of other keys of the same stripe from being cached (which is harmless).
+ */
+final class CacheStamps {
+
+    private static final int STRIPES = 64;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    /**
+     * Get current stamp of input key.
+     *
+     * @param key cache key
+     * @return stamp
+     */
+    public long get(final Object key) {
+        return this.stamps.get(stripe(key));
+    }
+
+    /**
+     * Change stamp of input key, before its entry is invalidated.
+     *
+     * @param key cache key
+     */
+    public void invalidate(final Object key) {
+        this.stamps.incrementAndGet(stripe(key));
+    }
+
+    /**
+     * Check if stamp of input key is unchanged.
+     *
+     * @param key   cache key
+     * @param stamp stamp, as returned before the entry was read
+     * @return is stamp unchanged
+     */
+    public boolean isCurrent(final Object key, final long stamp) {
+        return this.stamps.get(stripe(key)) == stamp;
+    }
+
+    /**
+     * Get stripe of input key.
+     *
+     * @param key cache key
+     * @return stripe index
+     */
+    private static int stripe(final Object key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+
+}
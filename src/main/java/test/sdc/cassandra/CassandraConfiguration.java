@@ -0,0 +1,406 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.ProtocolOptions;
+import com.datastax.driver.core.ProtocolVersion;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Configuration of the connection to Cassandra.
+ * <p>
+ * Unless stated otherwise, settings apply to the hosts of the local data center. Defaults allow more requests per
+ * connection than the driver does, since protocol v3+ allows up to 32768 requests in flight per connection.
+ */
+public final class CassandraConfiguration {
+
+    /**
+     * Prefix of the keys of the properties that configuration can be read from.
+     */
+    public static final String PROPERTY_PREFIX = "cassandra.";
+
+    private final List<String> contactPoints;
+    private final int port;
+    private final String localDataCenter;
+    private final int connectionsPerHost;
+    private final int maxRequestsPerConnection;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final ProtocolOptions.Compression compression;
+    private final ProtocolVersion protocolVersion;
+    private final int maxSpeculativeExecutions;
+    private final double speculativeExecutionPercentile;
+    private final long speculativeExecutionIntervalMillis;
+
+    /**
+     * Private constructor, which copies settings of input builder.
+     *
+     * @param builder builder
+     */
+    private CassandraConfiguration(final Builder builder) {
+        this.contactPoints = builder.contactPoints;
+        this.port = builder.port;
+        this.localDataCenter = builder.localDataCenter;
+        this.connectionsPerHost = builder.connectionsPerHost;
+        this.maxRequestsPerConnection = builder.maxRequestsPerConnection;
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+        this.readTimeoutMillis = builder.readTimeoutMillis;
+        this.compression = builder.compression;
+        this.protocolVersion = builder.protocolVersion;
+        this.maxSpeculativeExecutions = builder.maxSpeculativeExecutions;
+        this.speculativeExecutionPercentile = builder.speculativeExecutionPercentile;
+        this.speculativeExecutionIntervalMillis = builder.speculativeExecutionIntervalMillis;
+    }
+
+    /**
+     * Initialize builder instance with default settings.
+     *
+     * @return new builder instance
+     */
+    public static Builder newInstance() {
+        return new Builder();
+    }
+
+    /**
+     * Read configuration from input properties, with default settings for missing properties.
+     * <p>
+     * Keys are the names of the settings, prefixed with {@value #PROPERTY_PREFIX} (e.g. "cassandra.contactPoints", as
+     * a comma separated list, or "cassandra.compression", as one of NONE, SNAPPY or LZ4).
+     *
+     * @param properties properties (e.g. system properties)
+     * @return configuration
+     */
+    public static CassandraConfiguration from(final Properties properties) {
+        final Builder res = newInstance();
+        getProperty(properties, "contactPoints").ifPresent(value -> res.withContactPoints(Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(contactPoint -> !contactPoint.isEmpty())
+                .collect(Collectors.toList())));
+        getProperty(properties, "port").ifPresent(value -> res.withPort(Integer.parseInt(value)));
+        getProperty(properties, "localDataCenter").ifPresent(res::withLocalDataCenter);
+        getProperty(properties, "connectionsPerHost").ifPresent(value -> res.withConnectionsPerHost(Integer.parseInt(value)));
+        getProperty(properties, "maxRequestsPerConnection").ifPresent(value -> res.withMaxRequestsPerConnection(Integer.parseInt(value)));
+        getProperty(properties, "connectTimeoutMillis").ifPresent(value -> res.withConnectTimeoutMillis(Integer.parseInt(value)));
+        getProperty(properties, "readTimeoutMillis").ifPresent(value -> res.withReadTimeoutMillis(Integer.parseInt(value)));
+        getProperty(properties, "compression").ifPresent(value -> res.withCompression(ProtocolOptions.Compression.valueOf(value)));
+        getProperty(properties, "protocolVersion").ifPresent(value -> res.withProtocolVersion(ProtocolVersion.valueOf(value)));
+        getProperty(properties, "maxSpeculativeExecutions").ifPresent(value -> res.withMaxSpeculativeExecutions(Integer.parseInt(value)));
+        getProperty(properties, "speculativeExecutionPercentile").ifPresent(value -> res.withSpeculativeExecutionPercentile(Double.parseDouble(value)));
+        getProperty(properties, "speculativeExecutionIntervalMillis").ifPresent(value -> res.withSpeculativeExecutionIntervalMillis(Long.parseLong(value)));
+        return res.build();
+    }
+
+    /**
+     * Get property with input setting name.
+     *
+     * @param properties properties
+     * @param name       setting name
+     * @return trimmed property value, if defined and not blank
+     */
+    private static Optional<String> getProperty(final Properties properties, final String name) {
+        return Optional.ofNullable(properties.getProperty(PROPERTY_PREFIX + name))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty());
+    }
+
+    /**
+     * Get addresses of the hosts to connect to first.
+     *
+     * @return contact points
+     */
+    public List<String> getContactPoints() {
+        return this.contactPoints;
+    }
+
+    /**
+     * Get port of the native protocol.
+     *
+     * @return port
+     */
+    public int getPort() {
+        return this.port;
+    }
+
+    /**
+     * Get name of the local data center.
+     *
+     * @return name of the local data center, if set (otherwise, the data center of the contact points is used)
+     */
+    public Optional<String> getLocalDataCenter() {
+        return Optional.ofNullable(this.localDataCenter);
+    }
+
+    /**
+     * Get number of connections per host.
+     *
+     * @return number of connections per host
+     */
+    public int getConnectionsPerHost() {
+        return this.connectionsPerHost;
+    }
+
+    /**
+     * Get maximum number of requests in flight per connection.
+     *
+     * @return maximum number of requests per connection
+     */
+    public int getMaxRequestsPerConnection() {
+        return this.maxRequestsPerConnection;
+    }
+
+    /**
+     * Get connection timeout.
+     *
+     * @return connection timeout, in milliseconds
+     */
+    public int getConnectTimeoutMillis() {
+        return this.connectTimeoutMillis;
+    }
+
+    /**
+     * Get read timeout, that is the time the driver waits for a host to respond before trying the next one.
+     *
+     * @return read timeout, in milliseconds
+     */
+    public int getReadTimeoutMillis() {
+        return this.readTimeoutMillis;
+    }
+
+    /**
+     * Get compression of protocol frames.
+     *
+     * @return compression
+     */
+    public ProtocolOptions.Compression getCompression() {
+        return this.compression;
+    }
+
+    /**
+     * Get version of the native protocol.
+     *
+     * @return protocol version
+     */
+    public ProtocolVersion getProtocolVersion() {
+        return this.protocolVersion;
+    }
+
+    /**
+     * Get maximum number of speculative executions of an idempotent query, that is executions on other hosts while
+     * the first host has not responded yet.
+     *
+     * @return maximum number of speculative executions (0 if disabled)
+     */
+    public int getMaxSpeculativeExecutions() {
+        return this.maxSpeculativeExecutions;
+    }
+
+    /**
+     * Get percentile of the latency of a host after which a query is speculatively executed on the next host.
+     *
+     * @return percentile (e.g. 99.0)
+     */
+    public double getSpeculativeExecutionPercentile() {
+        return this.speculativeExecutionPercentile;
+    }
+
+    /**
+     * Get interval over which latencies are recorded to compute the percentile of the previous interval.
+     *
+     * @return interval, in milliseconds
+     */
+    public long getSpeculativeExecutionIntervalMillis() {
+        return this.speculativeExecutionIntervalMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%s:%d (local DC: %s, %d connection(s) per host, %d request(s) per connection, " +
+                        "timeouts: %dms/%dms, compression: %s, protocol: %s, " +
+                        "speculative executions: %d at p%s)",
+                this.contactPoints, this.port, this.getLocalDataCenter().orElse("auto"),
+                this.connectionsPerHost, this.maxRequestsPerConnection,
+                this.connectTimeoutMillis, this.readTimeoutMillis, this.compression, this.protocolVersion,
+                this.maxSpeculativeExecutions, this.speculativeExecutionPercentile);
+    }
+
+    /**
+     * Builder.
+     */
+    public static final class Builder {
+
+        private List<String> contactPoints = Collections.singletonList("localhost");
+        private int port = ProtocolOptions.DEFAULT_PORT;
+        private String localDataCenter;
+        private int connectionsPerHost = 2;
+        private int maxRequestsPerConnection = 8192;
+        private int connectTimeoutMillis = 5_000;
+        private int readTimeoutMillis = 12_000;
+        private ProtocolOptions.Compression compression = ProtocolOptions.Compression.LZ4;
+        private ProtocolVersion protocolVersion = ProtocolVersion.V4;
+        private int maxSpeculativeExecutions = 1;
+        private double speculativeExecutionPercentile = 99.;
+        private long speculativeExecutionIntervalMillis = 30_000L;
+
+        /**
+         * Private constructor.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Update builder with input contact points.
+         *
+         * @param contactPoints addresses of the hosts to connect to first
+         * @return current builder instance
+         */
+        public Builder withContactPoints(final List<String> contactPoints) {
+            checkArgument(!contactPoints.isEmpty(), "At least one contact point is required");
+            this.contactPoints = Collections.unmodifiableList(new ArrayList<>(contactPoints));
+            return this;
+        }
+
+        /**
+         * Update builder with input port.
+         *
+         * @param port port of the native protocol
+         * @return current builder instance
+         */
+        public Builder withPort(final int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Update builder with input local data center.
+         *
+         * @param localDataCenter name of the local data center
+         * @return current builder instance
+         */
+        public Builder withLocalDataCenter(final String localDataCenter) {
+            this.localDataCenter = localDataCenter;
+            return this;
+        }
+
+        /**
+         * Update builder with input number of connections per host.
+         *
+         * @param connectionsPerHost number of connections per host
+         * @return current builder instance
+         */
+        public Builder withConnectionsPerHost(final int connectionsPerHost) {
+            checkArgument(connectionsPerHost > 0, "Number of connections per host must be positive");
+            this.connectionsPerHost = connectionsPerHost;
+            return this;
+        }
+
+        /**
+         * Update builder with input maximum number of requests per connection.
+         *
+         * @param maxRequestsPerConnection maximum number of requests in flight per connection
+         * @return current builder instance
+         */
+        public Builder withMaxRequestsPerConnection(final int maxRequestsPerConnection) {
+            checkArgument(maxRequestsPerConnection > 0, "Maximum number of requests per connection must be positive");
+            this.maxRequestsPerConnection = maxRequestsPerConnection;
+            return this;
+        }
+
+        /**
+         * Update builder with input connection timeout.
+         *
+         * @param connectTimeoutMillis connection timeout, in milliseconds
+         * @return current builder instance
+         */
+        public Builder withConnectTimeoutMillis(final int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * Update builder with input read timeout.
+         *
+         * @param readTimeoutMillis read timeout, in milliseconds
+         * @return current builder instance
+         */
+        public Builder withReadTimeoutMillis(final int readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * Update builder with input compression.
+         *
+         * @param compression compression of protocol frames
+         * @return current builder instance
+         */
+        public Builder withCompression(final ProtocolOptions.Compression compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Update builder with input protocol version.
+         *
+         * @param protocolVersion version of the native protocol
+         * @return current builder instance
+         */
+        public Builder withProtocolVersion(final ProtocolVersion protocolVersion) {
+            this.protocolVersion = protocolVersion;
+            return this;
+        }
+
+        /**
+         * Update builder with input maximum number of speculative executions.
+         *
+         * @param maxSpeculativeExecutions maximum number of speculative executions per query (0 to disable)
+         * @return current builder instance
+         */
+        public Builder withMaxSpeculativeExecutions(final int maxSpeculativeExecutions) {
+            checkArgument(maxSpeculativeExecutions >= 0, "Maximum number of speculative executions must not be negative");
+            this.maxSpeculativeExecutions = maxSpeculativeExecutions;
+            return this;
+        }
+
+        /**
+         * Update builder with input percentile that triggers speculative executions.
+         *
+         * @param speculativeExecutionPercentile percentile of host latency (e.g. 99.0)
+         * @return current builder instance
+         */
+        public Builder withSpeculativeExecutionPercentile(final double speculativeExecutionPercentile) {
+            checkArgument(speculativeExecutionPercentile > 0. && speculativeExecutionPercentile < 100.,
+                    "Percentile must be between 0 and 100 (excluded)");
+            this.speculativeExecutionPercentile = speculativeExecutionPercentile;
+            return this;
+        }
+
+        /**
+         * Update builder with input interval of latency recording.
+         *
+         * @param speculativeExecutionIntervalMillis interval, in milliseconds
+         * @return current builder instance
+         */
+        public Builder withSpeculativeExecutionIntervalMillis(final long speculativeExecutionIntervalMillis) {
+            checkArgument(speculativeExecutionIntervalMillis > 0L, "Interval must be positive");
+            this.speculativeExecutionIntervalMillis = speculativeExecutionIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Build configuration instance, which later updates of the builder do not affect.
+         *
+         * @return configuration
+         */
+        public CassandraConfiguration build() {
+            checkArgument(this.maxRequestsPerConnection <= 128 || this.protocolVersion.compareTo(ProtocolVersion.V3) >= 0,
+                    "Protocol versions before v3 allow at most 128 requests per connection");
+            return new CassandraConfiguration(this);
+        }
+    }
+
+}
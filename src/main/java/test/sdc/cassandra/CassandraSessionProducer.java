@@ -1,13 +1,18 @@
 package test.sdc.cassandra;
 
-import com.datastax.driver.core.Cluster;
-import com.datastax.driver.core.Session;
-import com.datastax.driver.core.policies.DefaultRetryPolicy;
+import com.datastax.driver.core.*;
+import com.datastax.driver.core.policies.*;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.enterprise.inject.Produces;
 import javax.inject.Singleton;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Cassandra session initializer, for vessel keyspace.
@@ -15,22 +20,99 @@ import javax.inject.Singleton;
 @Singleton
 public final class CassandraSessionProducer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassandraSessionProducer.class);
+
     private static final String KEYSPACE = "vessel";
 
+    /**
+     * Tick duration of the timer that schedules speculative executions, in milliseconds.
+     * <p>
+     * The driver's default tick (100ms) would delay speculative executions well beyond typical read latencies.
+     */
+    private static final long TIMER_TICK_DURATION = 1L;
+
+    private CassandraConfiguration configuration = CassandraConfiguration.from(System.getProperties());
     private Cluster cluster;
     private Session session;
 
+    /**
+     * Set configuration (read from system properties by default).
+     *
+     * @param configuration configuration
+     * @see CassandraConfiguration#from(java.util.Properties)
+     */
+    public void setConfiguration(final CassandraConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
     /**
      * Initialize session.
      */
     @PostConstruct
     public void init() {
-        final String address = "localhost"; //FIXME: add to configuration
-        this.cluster = Cluster.builder()
-                .addContactPoint(address)
+        LOGGER.debug("Connect to {}", this.configuration);
+        this.cluster = buildCluster(this.configuration);
+        this.session = this.cluster.connect(KEYSPACE);
+    }
+
+    /**
+     * Build cluster from input configuration.
+     * <p>
+     * Requests are routed to replicas of the target partition (token awareness) in the local data center, and
+     * connections of local hosts are sized so that most requests are sent without waiting for a connection.
+     *
+     * @param configuration configuration
+     * @return cluster
+     */
+    private static Cluster buildCluster(final CassandraConfiguration configuration) {
+        final DCAwareRoundRobinPolicy.Builder localPolicy = DCAwareRoundRobinPolicy.builder();
+        configuration.getLocalDataCenter().ifPresent(localPolicy::withLocalDc);
+        final PoolingOptions poolingOptions = new PoolingOptions()
+                .setConnectionsPerHost(HostDistance.LOCAL,
+                        configuration.getConnectionsPerHost(), configuration.getConnectionsPerHost())
+                .setMaxRequestsPerConnection(HostDistance.LOCAL, configuration.getMaxRequestsPerConnection());
+        final SocketOptions socketOptions = new SocketOptions()
+                .setConnectTimeoutMillis(configuration.getConnectTimeoutMillis())
+                .setReadTimeoutMillis(configuration.getReadTimeoutMillis());
+        return Cluster.builder()
+                .addContactPoints(configuration.getContactPoints().toArray(new String[0]))
+                .withPort(configuration.getPort())
+                .withProtocolVersion(configuration.getProtocolVersion())
+                .withCompression(configuration.getCompression())
+                .withLoadBalancingPolicy(new TokenAwarePolicy(localPolicy.build()))
+                .withPoolingOptions(poolingOptions)
+                .withSocketOptions(socketOptions)
                 .withRetryPolicy(DefaultRetryPolicy.INSTANCE)
+                .withSpeculativeExecutionPolicy(buildSpeculativeExecutionPolicy(configuration))
+                .withNettyOptions(new NettyOptions() {
+                    @Override
+                    public Timer timer(final ThreadFactory threadFactory) {
+                        return new HashedWheelTimer(threadFactory, TIMER_TICK_DURATION, TimeUnit.MILLISECONDS);
+                    }
+                })
                 .build();
-        this.session = this.cluster.connect(KEYSPACE);
+    }
+
+    /**
+     * Build speculative execution policy from input configuration.
+     * <p>
+     * An idempotent query is executed on the next host once the latency of the first host exceeds the configured
+     * percentile of its own recent latencies, so that a single slow replica does not set tail latency. Queries that
+     * are not marked as idempotent are never speculatively executed.
+     *
+     * @param configuration configuration
+     * @return speculative execution policy
+     */
+    private static SpeculativeExecutionPolicy buildSpeculativeExecutionPolicy(final CassandraConfiguration configuration) {
+        if (configuration.getMaxSpeculativeExecutions() == 0) {
+            return NoSpeculativeExecutionPolicy.INSTANCE;
+        }
+        final PerHostPercentileTracker tracker = PerHostPercentileTracker
+                .builder(configuration.getReadTimeoutMillis())
+                .withInterval(configuration.getSpeculativeExecutionIntervalMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        return new PercentileSpeculativeExecutionPolicy(tracker,
+                configuration.getSpeculativeExecutionPercentile(), configuration.getMaxSpeculativeExecutions());
     }
 
     /**
@@ -52,4 +134,4 @@ public final class CassandraSessionProducer {
         this.cluster.close();
     }
 
-}
\ No newline at end of file
+}
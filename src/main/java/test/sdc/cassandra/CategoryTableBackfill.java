@@ -0,0 +1,107 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tool that copies all rows of vessels table into vessels by category table, once, when the materialized view that
+ * used to serve vessels by category is replaced with a table that vessel services maintain.
+ * <p>
+ * Migration is online, provided that it is run in this order:
+ * <ol>
+ * <li>drop materialized view vessels_by_category, and create table vessels_by_category</li>
+ * <li>deploy vessel services that write into the table</li>
+ * <li>run the tool (until then, vessels that have not been written since deployment are not found by category)</li>
+ * </ol>
+ * Rows are copied with the write time of their latest column, so that concurrent writes of services (including
+ * deletes and category changes) win over copies, and runs are idempotent.
+ */
+public final class CategoryTableBackfill {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CategoryTableBackfill.class);
+
+    /**
+     * Default number of rows fetched per page.
+     */
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Default maximum number of copies in flight.
+     */
+    private static final int DEFAULT_MAX_COPIES_IN_FLIGHT = 32;
+
+    private final Session session;
+    private final int fetchSize;
+    private final int maxCopiesInFlight;
+
+    /**
+     * Constructor.
+     *
+     * @param session           session
+     * @param fetchSize         number of rows fetched per page
+     * @param maxCopiesInFlight maximum number of copies in flight
+     */
+    private CategoryTableBackfill(final Session session, final int fetchSize, final int maxCopiesInFlight) {
+        this.session = session;
+        this.fetchSize = fetchSize;
+        this.maxCopiesInFlight = maxCopiesInFlight;
+    }
+
+    /**
+     * Initialize backfill of vessels by category table.
+     *
+     * @param session session
+     * @return new instance
+     */
+    public static CategoryTableBackfill of(final Session session) {
+        return new CategoryTableBackfill(session, DEFAULT_FETCH_SIZE, DEFAULT_MAX_COPIES_IN_FLIGHT);
+    }
+
+    /**
+     * Copy all rows of vessels table into vessels by category table, and wait for completion.
+     *
+     * @return number of copied rows
+     * @throws IllegalStateException if some rows could not be copied (tool is to be run again)
+     */
+    public long backfill() {
+        final PreparedStatement select = this.session.prepare(VisibilityResharder.selectForCopy());
+        final PreparedStatement insert = this.session.prepare(VisibilityResharder.copyInto("vessels_by_category"));
+        final Semaphore inFlight = new Semaphore(this.maxCopiesInFlight);
+        final AtomicLong copies = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final ResultSet rows = this.session.execute(select.bind()
+                .setFetchSize(this.fetchSize)
+                .setIdempotent(true));
+        for (final Row row : rows) {
+            if (row.isNull("vessel") || row.isNull("category")) {
+                continue; // Last departure columns only, left by a departure recorded concurrently with a removal
+            }
+            final String visibility = row.getString("visibility");
+            inFlight.acquireUninterruptibly();
+            copies.incrementAndGet();
+            CompletableFutures.toCompletableFuture(this.session.executeAsync(
+                    VisibilityResharder.bindCopy(insert.bind(), row, visibility).setIdempotent(true)))
+                    .whenComplete((result, failure) -> {
+                        if (failure != null) {
+                            LOGGER.warn("Failed to copy vessel {} of partition {}", row.getUUID("uuid"), visibility, failure);
+                            failures.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquireUninterruptibly(this.maxCopiesInFlight); // Wait for copies in flight
+        if (failures.get() > 0L) {
+            throw new IllegalStateException(String.format("Failed to copy %d of %d vessel(s)", failures.get(), copies.get()));
+        }
+        LOGGER.debug("Copied {} vessel(s)", copies.get());
+        return copies.get();
+    }
+
+}
@@ -0,0 +1,86 @@
+package test.sdc.cassandra;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Utility methods for completable futures.
+ */
+final class CompletableFutures {
+
+    /**
+     * Private constructor.
+     */
+    private CompletableFutures() {
+    }
+
+    /**
+     * Convert input listenable future into a completable future.
+     * <p>
+     * The returned future is completed by the thread that completes the input future (typically a driver I/O thread),
+     * so that dependent stages that do not run asynchronously must not perform any blocking or costly operation.
+     *
+     * @param future listenable future
+     * @param <T>    result type
+     * @return completable future
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(final ListenableFuture<T> future) {
+        final CompletableFuture<T> res = new CompletableFuture<>();
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(final T result) {
+                res.complete(result);
+            }
+
+            @Override
+            public void onFailure(final Throwable failure) {
+                res.completeExceptionally(failure);
+            }
+        }, MoreExecutors.directExecutor());
+        return res;
+    }
+
+    /**
+     * Wait for input future to complete, and get result.
+     * <p>
+     * Unlike {@link CompletableFuture#join()}, the cause of a failure is rethrown as is when it is unchecked, so that
+     * blocking callers get the same exceptions as with synchronous driver calls.
+     *
+     * @param future future
+     * @param <T>    result type
+     * @return result
+     */
+    public static <T> T getUninterruptibly(final CompletableFuture<T> future) {
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (final ExecutionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Get unchecked exception to be thrown for input failure.
+     *
+     * @param failure failure
+     * @return unchecked exception
+     */
+    private static RuntimeException propagate(final Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            return propagate(failure.getCause());
+        } else if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else {
+            return new CompletionException(failure);
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+package test.sdc.cassandra;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Reservoir that records all values into high dynamic range histograms, rather than a sample of them.
+ * <p>
+ * Percentiles are therefore accurate (with 3 significant digits) even for rare slow values, which a sampling
+ * reservoir would likely miss. Snapshots cover a sliding window of recent values (the last minute by default), so that
+ * a latency regression shows in percentiles however long the process has been running: values are kept in histograms
+ * of time slices, and slices that are older than the window are dropped (values recorded since the previous snapshot
+ * are counted in the current slice).
+ */
+final class HdrHistogramReservoir
+        implements Reservoir {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * Number of time slices of the window.
+     */
+    private static final int SLICES = 6;
+
+    /**
+     * Default duration of the window, in milliseconds.
+     */
+    private static final long DEFAULT_WINDOW_MILLIS = 60_000L;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Clock clock;
+    private final long sliceMillis;
+    private final Histogram[] slices = new Histogram[SLICES];
+    private final long[] sliceIds = new long[SLICES];
+
+    /**
+     * Constructor, with default window.
+     */
+    HdrHistogramReservoir() {
+        this(DEFAULT_WINDOW_MILLIS, Clock.defaultClock());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param windowMillis duration of the window, in milliseconds
+     * @param clock        clock
+     */
+    HdrHistogramReservoir(final long windowMillis, final Clock clock) {
+        checkArgument(windowMillis >= SLICES, "Window must be at least %s ms", SLICES);
+        this.clock = clock;
+        this.sliceMillis = windowMillis / SLICES;
+        for (int index = 0; index < SLICES; index++) {
+            this.slices[index] = new Histogram(SIGNIFICANT_DIGITS);
+            this.sliceIds[index] = -1L;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.getSnapshot().size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(final long value) {
+        this.recorder.recordValue(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Snapshot holds values of the time slices of the window, that is values that were recorded within the window
+     * duration (up to one slice more).
+     */
+    @Override
+    public Snapshot getSnapshot() {
+        final long sliceId = this.clock.getTime() / this.sliceMillis;
+        synchronized (this.slices) {
+            final int current = (int) (sliceId % SLICES);
+            if (this.sliceIds[current] != sliceId) {
+                this.slices[current].reset();
+                this.sliceIds[current] = sliceId;
+            }
+            this.slices[current].add(this.recorder.getIntervalHistogram());
+            final Histogram res = new Histogram(SIGNIFICANT_DIGITS);
+            for (int index = 0; index < SLICES; index++) {
+                if (this.sliceIds[index] > sliceId - SLICES) {
+                    res.add(this.slices[index]);
+                }
+            }
+            return new HdrHistogramSnapshot(res);
+        }
+    }
+
+    /**
+     * Snapshot of a high dynamic range histogram.
+     */
+    private static final class HdrHistogramSnapshot
+            extends Snapshot {
+
+        private final Histogram histogram;
+
+        /**
+         * Constructor.
+         *
+         * @param histogram histogram, which is not updated anymore
+         */
+        private HdrHistogramSnapshot(final Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getValue(final double quantile) {
+            return this.histogram.getValueAtPercentile(quantile * 100.);
+        }
+
+        /**
+         * Get recorded values, once per histogram bucket (with the highest equivalent value of the bucket).
+         *
+         * @return recorded values
+         */
+        @Override
+        public long[] getValues() {
+            final List<Long> values = new ArrayList<>();
+            for (final HistogramIterationValue value : this.histogram.recordedValues()) {
+                values.add(value.getValueIteratedTo());
+            }
+            return values.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return (int) Math.min(this.histogram.getTotalCount(), Integer.MAX_VALUE);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getMax() {
+            return this.histogram.getMaxValue();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getMean() {
+            return this.histogram.getMean();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getMin() {
+            return this.histogram.getTotalCount() == 0L ? 0L : this.histogram.getMinValue();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getStdDev() {
+            return this.histogram.getStdDeviation();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void dump(final OutputStream output) {
+            try (final PrintWriter writer = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (final long value : this.getValues()) {
+                    writer.printf("%d%n", value);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,262 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import test.sdc.model.Vessel;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+
+/**
+ * In-memory trigram index of vessel names, by vessels table partition.
+ * <p>
+ * Matching is case insensitive, like the SASI index of vessels table. The index is loaded from vessels table, which
+ * remains the source of truth, and kept up to date by writes of the current node only: it is to be loaded again for
+ * writes of other nodes to be visible.
+ */
+final class NameFragmentIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NameFragmentIndex.class);
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int FETCH_SIZE = 1000;
+
+    private final Map<String, PartitionIndex> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor.
+     */
+    private NameFragmentIndex() {
+    }
+
+    /**
+     * Load index from vessels table.
+     *
+     * @param session session
+     * @return new index
+     */
+    public static NameFragmentIndex load(final Session session) {
+        final NameFragmentIndex index = new NameFragmentIndex();
+        final ResultSet result = session.execute(select("visibility", "uuid", "vessel", "name", "category", "last_departure_port", "last_departure_time")
+                .from("vessels")
+                .setFetchSize(FETCH_SIZE)
+                .setIdempotent(true));
+        final VesselRowCodec codec = VesselRowCodec.of(result.getColumnDefinitions());
+        int count = 0;
+        for (final Row row : result) {
+            final Vessel vessel = codec.decode(row);
+            if (vessel != null) {
+                index.put(row.getString("visibility"), vessel);
+                count++;
+            }
+        }
+        LOGGER.debug("Loaded {} vessel(s) into name fragment index", count);
+        return index;
+    }
+
+    /**
+     * Find vessels whose name contains input fragment.
+     *
+     * @param visibility   visibility key of the partition
+     * @param nameFragment name fragment
+     * @return matching vessels
+     */
+    public List<Vessel> find(final String visibility, final String nameFragment) {
+        final PartitionIndex partition = this.partitions.get(visibility);
+        return partition == null
+                ? Collections.emptyList()
+                : partition.find(normalize(nameFragment));
+    }
+
+    /**
+     * Index input vessel, replacing any previous version.
+     *
+     * @param visibility visibility key of the partition
+     * @param vessel     vessel
+     */
+    public void put(final String visibility, final Vessel vessel) {
+        this.partitions.computeIfAbsent(visibility, key -> new PartitionIndex())
+                .put(vessel);
+    }
+
+    /**
+     * Remove vessel with input UUID from index.
+     *
+     * @param visibility visibility key of the partition
+     * @param uuid       UUID
+     */
+    public void remove(final String visibility, final String uuid) {
+        final PartitionIndex partition = this.partitions.get(visibility);
+        if (partition != null) {
+            partition.remove(uuid);
+        }
+    }
+
+    /**
+     * Normalize input name or name fragment, so that matching is case insensitive.
+     *
+     * @param name name or name fragment
+     * @return normalized name or name fragment
+     */
+    private static String normalize(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get distinct trigrams of input normalized name.
+     *
+     * @param name normalized name
+     * @return trigrams
+     */
+    private static Set<String> getGrams(final String name) {
+        final Set<String> res = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            res.add(name.substring(i, i + GRAM_LENGTH));
+        }
+        return res;
+    }
+
+    /**
+     * Trigram index of the vessels of a partition.
+     */
+    private static final class PartitionIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, IndexedVessel> vessels = new HashMap<>();
+        private final Map<String, Set<String>> postings = new HashMap<>();
+
+        /**
+         * Find vessels whose name contains input normalized fragment.
+         * <p>
+         * Candidates are the vessels whose name contains all trigrams of the fragment (or all vessels if the fragment
+         * is shorter than a trigram), and are then checked against the whole fragment.
+         *
+         * @param nameFragment normalized name fragment
+         * @return matching vessels
+         */
+        private List<Vessel> find(final String nameFragment) {
+            this.lock.readLock().lock();
+            try {
+                final Collection<String> candidates = this.getCandidates(nameFragment);
+                final List<Vessel> res = new ArrayList<>();
+                for (final String uuid : candidates) {
+                    final IndexedVessel candidate = this.vessels.get(uuid);
+                    if (candidate.normalizedName.contains(nameFragment)) {
+                        res.add(candidate.vessel);
+                    }
+                }
+                return res;
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Get UUIDs of vessels whose name contains all trigrams of input normalized fragment.
+         *
+         * @param nameFragment normalized name fragment
+         * @return candidate UUIDs
+         */
+        private Collection<String> getCandidates(final String nameFragment) {
+            final Set<String> grams = getGrams(nameFragment);
+            if (grams.isEmpty()) {
+                return this.vessels.keySet();
+            }
+            final List<Set<String>> gramPostings = new ArrayList<>(grams.size());
+            for (final String gram : grams) {
+                final Set<String> posting = this.postings.get(gram);
+                if (posting == null) {
+                    return Collections.emptySet();
+                }
+                gramPostings.add(posting);
+            }
+            gramPostings.sort(Comparator.comparingInt(Set::size));
+            final Set<String> res = new HashSet<>(gramPostings.get(0));
+            for (int i = 1; i < gramPostings.size() && !res.isEmpty(); i++) {
+                res.retainAll(gramPostings.get(i));
+            }
+            return res;
+        }
+
+        /**
+         * Index input vessel, replacing any previous version.
+         *
+         * @param vessel vessel
+         */
+        private void put(final Vessel vessel) {
+            final IndexedVessel indexedVessel = new IndexedVessel(vessel);
+            this.lock.writeLock().lock();
+            try {
+                this.removeUnderLock(vessel.getUuid());
+                this.vessels.put(vessel.getUuid(), indexedVessel);
+                for (final String gram : getGrams(indexedVessel.normalizedName)) {
+                    this.postings.computeIfAbsent(gram, key -> new HashSet<>())
+                            .add(vessel.getUuid());
+                }
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Remove vessel with input UUID.
+         *
+         * @param uuid UUID
+         */
+        private void remove(final String uuid) {
+            this.lock.writeLock().lock();
+            try {
+                this.removeUnderLock(uuid);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Remove vessel with input UUID, once write lock is held.
+         *
+         * @param uuid UUID
+         */
+        private void removeUnderLock(final String uuid) {
+            final IndexedVessel former = this.vessels.remove(uuid);
+            if (former != null) {
+                for (final String gram : getGrams(former.normalizedName)) {
+                    final Set<String> posting = this.postings.get(gram);
+                    posting.remove(uuid);
+                    if (posting.isEmpty()) {
+                        this.postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Indexed vessel, with normalized name.
+     */
+    private static final class IndexedVessel {
+
+        private final Vessel vessel;
+        private final String normalizedName;
+
+        /**
+         * Constructor.
+         *
+         * @param vessel vessel
+         */
+        private IndexedVessel(final Vessel vessel) {
+            this.vessel = vessel;
+            this.normalizedName = normalize(vessel.getName());
+        }
+
+    }
+
+}
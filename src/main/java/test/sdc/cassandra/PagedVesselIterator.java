@@ -0,0 +1,79 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import test.sdc.model.Vessel;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over vessels of several partitions of vessels table, which are queried one after the other and fetched page
+ * by page, so that no more than two pages are held in memory at a time.
+ */
+final class PagedVesselIterator
+        implements Iterator<Vessel> {
+
+    private final Session session;
+    private final Iterator<Statement> queries;
+    private final int fetchSize;
+    private ResultSet result;
+    private VesselRowCodec codec;
+    private Iterator<Row> rows = Collections.emptyIterator();
+    private Vessel next;
+
+    /**
+     * Constructor.
+     *
+     * @param session   session
+     * @param queries   queries, one per partition
+     * @param fetchSize number of rows per page
+     */
+    PagedVesselIterator(final Session session, final Iterator<Statement> queries, final int fetchSize) {
+        this.session = session;
+        this.queries = queries;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Next page is fetched in background once half of current page has been consumed.
+     */
+    @Override
+    public boolean hasNext() {
+        while (this.next == null) {
+            if (this.rows.hasNext()) {
+                if (this.result.getAvailableWithoutFetching() == this.fetchSize / 2 && !this.result.isFullyFetched()) {
+                    this.result.fetchMoreResults();
+                }
+                this.next = this.codec.decode(this.rows.next());
+            } else if (this.queries.hasNext()) {
+                final Statement query = this.queries.next().setFetchSize(this.fetchSize);
+                this.result = this.session.execute(query);
+                this.codec = VesselRowCodec.of(this.result.getColumnDefinitions());
+                this.rows = this.result.iterator();
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Vessel next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Vessel res = this.next;
+        this.next = null;
+        return res;
+    }
+
+}
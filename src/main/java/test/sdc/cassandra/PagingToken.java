@@ -0,0 +1,120 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.PagingState;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Position in a list of partitions that are read one after the other: index of current partition, and paging state
+ * within this partition.
+ * <p>
+ * Tokens are exposed to callers as opaque strings.
+ */
+final class PagingToken {
+
+    private static final char SEPARATOR = ':';
+
+    private final int partition;
+    private final PagingState pagingState;
+
+    /**
+     * Constructor.
+     *
+     * @param partition   partition index
+     * @param pagingState paging state within partition, or null if partition is to be read from the beginning
+     */
+    private PagingToken(final int partition, final PagingState pagingState) {
+        this.partition = partition;
+        this.pagingState = pagingState;
+    }
+
+    /**
+     * Get position of first page.
+     *
+     * @return position of first page
+     */
+    public static PagingToken first() {
+        return new PagingToken(0, null);
+    }
+
+    /**
+     * Parse input token.
+     *
+     * @param token          token, as exposed to callers
+     * @param partitionCount number of partitions
+     * @return position
+     * @throws IllegalArgumentException if token is not valid
+     */
+    public static PagingToken parse(final String token, final int partitionCount) {
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid paging token: " + token, e);
+        }
+        final int separatorIndex = decoded.indexOf(SEPARATOR);
+        checkArgument(separatorIndex > 0, "Invalid paging token: %s", token);
+        final int partition;
+        try {
+            partition = Integer.parseInt(decoded.substring(0, separatorIndex));
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid paging token: " + token, e);
+        }
+        checkArgument(partition >= 0 && partition < partitionCount, "Invalid paging token: %s", token);
+        final String pagingState = decoded.substring(separatorIndex + 1);
+        return new PagingToken(partition, pagingState.isEmpty() ? null : PagingState.fromString(pagingState));
+    }
+
+    /**
+     * Get position that follows a page read from current position.
+     *
+     * @param pagingState    paging state returned with the page, or null if partition has been fully read
+     * @param partitionCount number of partitions
+     * @return next position, if any
+     */
+    public Optional<PagingToken> next(final PagingState pagingState, final int partitionCount) {
+        if (pagingState != null) {
+            return Optional.of(new PagingToken(this.partition, pagingState));
+        } else if (this.partition + 1 < partitionCount) {
+            return Optional.of(new PagingToken(this.partition + 1, null));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get partition index.
+     *
+     * @return partition index
+     */
+    public int getPartition() {
+        return this.partition;
+    }
+
+    /**
+     * Get paging state within partition.
+     *
+     * @return paging state within partition, if partition is not to be read from the beginning
+     */
+    public Optional<PagingState> getPagingState() {
+        return Optional.ofNullable(this.pagingState);
+    }
+
+    /**
+     * Get token, as exposed to callers.
+     *
+     * @return token
+     */
+    @Override
+    public String toString() {
+        final String decoded = this.partition + String.valueOf(SEPARATOR)
+                + (this.pagingState == null ? "" : this.pagingState.toString());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(decoded.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
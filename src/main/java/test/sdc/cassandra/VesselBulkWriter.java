@@ -0,0 +1,216 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.*;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import test.sdc.model.Vessel;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Writer of large numbers of vessels.
+ * <p>
+ * Rows are grouped by target partition across vessel tables, and each group is sent as unlogged batches, which are
+ * applied by a single replica set without batch log. Besides new rows, the statements of a vessel may delete rows of
+ * its previous state whose primary key changed, which are grouped by partition as well. Unlike single vessel writes,
+ * writes of a vessel into the different tables are therefore not atomic: a vessel for which a batch failed may be
+ * partially written, and is to be written again.
+ */
+final class VesselBulkWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VesselBulkWriter.class);
+
+    /**
+     * Maximum number of statements per batch, so that batches stay below the size that Cassandra warns about.
+     */
+    private static final int MAX_BATCH_SIZE = 20;
+
+    private final Session session;
+    private final VesselStatementRegistry statements;
+    private final Semaphore inFlight;
+
+    /**
+     * Constructor.
+     *
+     * @param session     session
+     * @param statements  prepared vessel statements
+     * @param maxInFlight maximum number of requests in flight
+     */
+    VesselBulkWriter(final Session session, final VesselStatementRegistry statements, final int maxInFlight) {
+        checkArgument(maxInFlight > 0, "Maximum number of requests in flight must be positive");
+        this.session = session;
+        this.statements = statements;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Save vessels with input information into vessel tables, as new rows, and wait for completion.
+     *
+     * @param vessels vessels, by UUID
+     * @return failures, by vessel (empty if all vessels have been saved)
+     */
+    public Map<Vessel, Throwable> save(final Map<UUID, Vessel> vessels) {
+        return this.write(vessels, this::bindSave);
+    }
+
+    /**
+     * Write statements of vessels with input information, and wait for completion.
+     *
+     * @param vessels    vessels, by UUID
+     * @param statements function that binds the statements that write a vessel, from its UUID and new state
+     * @return failures, by vessel (empty if all vessels have been written)
+     */
+    public Map<Vessel, Throwable> write(final Map<UUID, Vessel> vessels,
+                                        final BiFunction<UUID, Vessel, List<BoundStatement>> statements) {
+        final Map<PartitionKey, List<VesselStatement>> partitions = this.groupByPartition(vessels, statements);
+        LOGGER.trace("Write {} vessel(s) into {} partition(s)", vessels.size(), partitions.size());
+        final Map<Vessel, Throwable> failures = new ConcurrentHashMap<>();
+        final List<CompletableFuture<ResultSet>> requests = new ArrayList<>();
+        for (final List<VesselStatement> partition : partitions.values()) {
+            for (final List<VesselStatement> chunk : Lists.partition(partition, MAX_BATCH_SIZE)) {
+                requests.add(this.execute(chunk)
+                        .whenComplete((result, failure) -> {
+                            if (failure != null) {
+                                chunk.forEach(statement -> failures.putIfAbsent(statement.vessel, failure));
+                            }
+                        }));
+            }
+        }
+        for (final CompletableFuture<ResultSet> request : requests) {
+            request.handle((result, failure) -> null).join();
+        }
+        LOGGER.trace("Wrote {} vessel(s), {} failure(s)", vessels.size() - failures.size(), failures.size());
+        return new HashMap<>(failures);
+    }
+
+    /**
+     * Bind save statements of vessel with input information into relevant tables.
+     *
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @return save statements
+     */
+    private List<BoundStatement> bindSave(final UUID uuid, final Vessel vessel) {
+        final List<BoundStatement> res = new ArrayList<>();
+        for (final VesselTableType table : VesselTableType.values()) {
+            if (table.isRelevant(vessel)) {
+                res.add(this.statements.bindSave(table, uuid, vessel));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Group statements of input vessels by target partition.
+     *
+     * @param vessels    vessels, by UUID
+     * @param statements function that binds the statements that write a vessel
+     * @return statements, by partition
+     */
+    private Map<PartitionKey, List<VesselStatement>> groupByPartition(final Map<UUID, Vessel> vessels,
+            final BiFunction<UUID, Vessel, List<BoundStatement>> statements) {
+        final ProtocolVersion protocolVersion = this.session.getCluster().getConfiguration()
+                .getProtocolOptions().getProtocolVersion();
+        final CodecRegistry codecRegistry = this.session.getCluster().getConfiguration().getCodecRegistry();
+        final Map<PartitionKey, List<VesselStatement>> res = new LinkedHashMap<>();
+        for (final Map.Entry<UUID, Vessel> vessel : vessels.entrySet()) {
+            for (final BoundStatement statement : statements.apply(vessel.getKey(), vessel.getValue())) {
+                final PartitionKey key = new PartitionKey(statement.preparedStatement().getVariables().getTable(0),
+                        statement.getRoutingKey(protocolVersion, codecRegistry));
+                res.computeIfAbsent(key, k -> new ArrayList<>())
+                        .add(new VesselStatement(vessel.getValue(), statement));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Execute input statements, which target a single partition, once a request slot is available.
+     *
+     * @param statements statements
+     * @return future result
+     */
+    private CompletableFuture<ResultSet> execute(final List<VesselStatement> statements) {
+        final Statement query;
+        if (statements.size() == 1) {
+            query = statements.get(0).statement;
+        } else {
+            final BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+            statements.forEach(statement -> batch.add(statement.statement));
+            query = batch;
+        }
+        query.setIdempotent(false);
+        this.inFlight.acquireUninterruptibly();
+        return CompletableFutures.toCompletableFuture(this.session.executeAsync(query))
+                .whenComplete((result, failure) -> this.inFlight.release());
+    }
+
+    /**
+     * Partition of a vessel table.
+     */
+    private static final class PartitionKey {
+
+        private final String table;
+        private final ByteBuffer routingKey;
+
+        /**
+         * Constructor.
+         *
+         * @param table      vessel table name
+         * @param routingKey serialized partition key
+         */
+        private PartitionKey(final String table, final ByteBuffer routingKey) {
+            this.table = table;
+            this.routingKey = routingKey;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof PartitionKey
+                    && Objects.equals(this.table, ((PartitionKey) other).table)
+                    && Objects.equals(this.routingKey, ((PartitionKey) other).routingKey);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.table, this.routingKey);
+        }
+
+    }
+
+    /**
+     * Statement that writes a vessel.
+     */
+    private static final class VesselStatement {
+
+        private final Vessel vessel;
+        private final Statement statement;
+
+        /**
+         * Constructor.
+         *
+         * @param vessel    vessel
+         * @param statement statement
+         */
+        private VesselStatement(final Vessel vessel, final Statement statement) {
+            this.vessel = vessel;
+            this.statement = statement;
+        }
+
+    }
+
+}
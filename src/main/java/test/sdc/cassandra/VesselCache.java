@@ -0,0 +1,130 @@
+package test.sdc.cassandra;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheStats;
+import test.sdc.model.Vessel;
+
+import java.util.Optional;
+
+/**
+ * In-process cache of vessels, by UUID.
+ * <p>
+ * The cache is kept up to date by writes of the current node only: writes of other nodes are visible once entries
+ * expire. Vessels that are read are cached only if they were not written meanwhile (see {@link #getStamp(String)}),
+ * so that a read that started before a write cannot overwrite the state that the write cached.
+ */
+final class VesselCache {
+
+    private static final VesselCache DISABLED = new VesselCache(null);
+
+    private final Cache<String, Vessel> cache;
+    private final CacheStamps stamps = new CacheStamps();
+
+    /**
+     * Constructor.
+     *
+     * @param cache cache, or null if caching is disabled
+     */
+    private VesselCache(final Cache<String, Vessel> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Get cache that never holds any vessel.
+     *
+     * @return disabled cache
+     */
+    public static VesselCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Initialize cache from input specification.
+     *
+     * @param spec specification, in the format of {@link CacheBuilderSpec} (e.g. "maximumSize=10000,expireAfterWrite=30s")
+     * @return new cache
+     */
+    public static VesselCache from(final String spec) {
+        final Cache<String, Vessel> cache = CacheBuilder.from(spec)
+                .recordStats()
+                .build();
+        return new VesselCache(cache);
+    }
+
+    /**
+     * Get cached vessel.
+     *
+     * @param uuid UUID
+     * @return cached vessel, if any
+     */
+    public Optional<Vessel> get(final String uuid) {
+        return this.cache == null
+                ? Optional.empty()
+                : Optional.ofNullable(this.cache.getIfPresent(uuid));
+    }
+
+    /**
+     * Get stamp of vessel with input UUID, to be taken before vessel is read.
+     *
+     * @param uuid UUID
+     * @return stamp
+     * @see #putIfUnchanged(Vessel, long)
+     */
+    public long getStamp(final String uuid) {
+        return this.cache == null ? 0L : this.stamps.get(uuid);
+    }
+
+    /**
+     * Cache input vessel, which has been written.
+     *
+     * @param vessel vessel
+     */
+    public void put(final Vessel vessel) {
+        if (this.cache != null) {
+            this.stamps.invalidate(vessel.getUuid());
+            this.cache.put(vessel.getUuid(), vessel);
+        }
+    }
+
+    /**
+     * Cache input vessel, which has been read, unless it has been written since its stamp was taken.
+     *
+     * @param vessel vessel
+     * @param stamp  stamp of vessel, taken before it was read
+     */
+    public void putIfUnchanged(final Vessel vessel, final long stamp) {
+        if (this.cache != null && this.stamps.isCurrent(vessel.getUuid(), stamp)) {
+            this.cache.put(vessel.getUuid(), vessel);
+            if (!this.stamps.isCurrent(vessel.getUuid(), stamp)) {
+                // Written while being cached: the write may have cached its own state before this one
+                this.cache.invalidate(vessel.getUuid());
+            }
+        }
+    }
+
+    /**
+     * Remove vessel with input UUID from cache.
+     *
+     * @param uuid UUID
+     */
+    public void invalidate(final String uuid) {
+        if (this.cache != null) {
+            this.stamps.invalidate(uuid);
+            this.cache.invalidate(uuid);
+        }
+    }
+
+    /**
+     * Get statistics (hit, miss and eviction counts).
+     *
+     * @return statistics
+     */
+    public CacheStats getStats() {
+        return this.cache == null
+                ? new CacheStats(0L, 0L, 0L, 0L, 0L, 0L)
+                : this.cache.stats();
+    }
+
+}
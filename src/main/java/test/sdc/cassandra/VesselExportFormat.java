@@ -0,0 +1,156 @@
+package test.sdc.cassandra;
+
+import test.sdc.model.Vessel;
+import test.sdc.model.VesselDeparture;
+import test.sdc.model.VisibilityType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Binary format of exported vessels: a header (magic number and version), then one record per vessel, then an end
+ * marker.
+ * <p>
+ * A record is made of a record marker, the UUID (as two longs), the name, category, visibility and creation center
+ * (as length-prefixed UTF-8 strings), and the last departure info if any (presence flag, port, and time as epoch
+ * milliseconds).
+ */
+final class VesselExportFormat {
+
+    private static final int MAGIC = 0x56534c31; // "VSL1"
+    private static final byte VERSION = 1;
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+
+    /**
+     * Private constructor.
+     */
+    private VesselExportFormat() {
+    }
+
+    /**
+     * Write header to input output.
+     *
+     * @param output output
+     * @throws IOException if header cannot be written
+     */
+    public static void writeHeader(final DataOutputStream output)
+            throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+    }
+
+    /**
+     * Write record of input vessel to input output.
+     *
+     * @param output output
+     * @param vessel vessel
+     * @throws IOException if record cannot be written
+     */
+    public static void write(final DataOutputStream output, final Vessel vessel)
+            throws IOException {
+        final UUID uuid = UUID.fromString(vessel.getUuid());
+        output.writeByte(RECORD);
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+        output.writeUTF(vessel.getName());
+        output.writeUTF(vessel.getCategory().getUuid());
+        output.writeUTF(vessel.getVisibility().name());
+        output.writeUTF(vessel.getCreationCenter().getUuid());
+        final Optional<VesselDeparture> lastDeparture = vessel.getLastDeparture();
+        output.writeBoolean(lastDeparture.isPresent());
+        if (lastDeparture.isPresent()) {
+            output.writeUTF(lastDeparture.get().getDeparturePort().getUuid());
+            output.writeLong(lastDeparture.get().getDepartureTime().toEpochMilli());
+        }
+    }
+
+    /**
+     * Write end marker to input output.
+     *
+     * @param output output
+     * @throws IOException if end marker cannot be written
+     */
+    public static void writeEnd(final DataOutputStream output)
+            throws IOException {
+        output.writeByte(END);
+    }
+
+    /**
+     * Read vessels from input input, lazily.
+     *
+     * @param input input, positioned at the header
+     * @return iterator of vessels, which fails with an {@link UncheckedIOException} if input cannot be read
+     * @throws IOException if header cannot be read or is invalid
+     */
+    public static Iterator<Vessel> read(final DataInputStream input)
+            throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a vessel export file");
+        }
+        final byte version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported vessel export file version: " + version);
+        }
+        return new Iterator<Vessel>() {
+
+            private Vessel next = this.readNext();
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public Vessel next() {
+                if (this.next == null) {
+                    throw new NoSuchElementException();
+                }
+                final Vessel res = this.next;
+                this.next = this.readNext();
+                return res;
+            }
+
+            /**
+             * Read next record.
+             *
+             * @return vessel, or null once end marker is read
+             */
+            private Vessel readNext() {
+                try {
+                    return input.readByte() == RECORD ? readRecord(input) : null;
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Read record from input input, after record marker.
+     *
+     * @param input input
+     * @return vessel
+     * @throws IOException if record cannot be read
+     */
+    private static Vessel readRecord(final DataInputStream input)
+            throws IOException {
+        final Vessel.Builder builder = Vessel.fromUuid(new UUID(input.readLong(), input.readLong()).toString())
+                .withName(input.readUTF())
+                .withCategory(input.readUTF())
+                .withVisibility(VisibilityType.valueOf(input.readUTF()))
+                .withCreationCenter(input.readUTF());
+        if (input.readBoolean()) {
+            builder.withDeparture(input.readUTF(), Instant.ofEpochMilli(input.readLong()));
+        }
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,384 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TokenRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import test.sdc.model.Vessel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Tool that exports all vessels of vessels by UUID table into a directory, by token range.
+ * <p>
+ * The token ring is split into sub-ranges, which are scanned in parallel (a bounded number at a time, each one page by
+ * page) rather than partition by partition, and written into a file per sub-range (see {@link VesselExportFormat}).
+ * <p>
+ * Exports are checkpointed by sub-range: sub-ranges are listed in a manifest on the first run, and the file of a
+ * sub-range is renamed once it is complete, so that an interrupted export is resumed by running it again into the same
+ * directory (only sub-ranges without complete file are scanned). As vessels are exported while they may be written,
+ * an export is not a snapshot of a single point in time.
+ */
+public final class VesselExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VesselExporter.class);
+
+    /**
+     * Name of the manifest, which lists sub-ranges (start and end tokens, one sub-range per line).
+     */
+    private static final String MANIFEST = "ranges";
+
+    /**
+     * Extension of the files of sub-ranges, once complete.
+     */
+    private static final String EXTENSION = ".vessels";
+
+    /**
+     * Extension of the files of sub-ranges, while they are written.
+     */
+    private static final String PART_EXTENSION = ".part";
+
+    /**
+     * Default number of rows fetched per page.
+     */
+    private static final int DEFAULT_FETCH_SIZE = 1_000;
+
+    /**
+     * Default number of sub-ranges per scanning thread.
+     */
+    private static final int DEFAULT_SPLITS_PER_THREAD = 16;
+
+    private final Session session;
+    private final Path directory;
+    private final int parallelism;
+    private final int splits;
+    private final int fetchSize;
+
+    /**
+     * Constructor.
+     *
+     * @param session     session
+     * @param directory   export directory
+     * @param parallelism number of sub-ranges scanned at a time
+     * @param splits      minimum number of sub-ranges of the token ring
+     * @param fetchSize   number of rows fetched per page
+     */
+    private VesselExporter(final Session session, final Path directory, final int parallelism, final int splits,
+                           final int fetchSize) {
+        this.session = session;
+        this.directory = directory;
+        this.parallelism = parallelism;
+        this.splits = splits;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Initialize builder of exporter into input directory.
+     *
+     * @param session   session
+     * @param directory export directory, which is created if needed
+     * @return new builder instance
+     */
+    public static Builder builder(final Session session, final Path directory) {
+        return new Builder(session, directory);
+    }
+
+    /**
+     * Read vessels of export in input directory, lazily (sub-ranges that are not complete are skipped).
+     * <p>
+     * The stream is to be closed once consumed, so that files are closed.
+     *
+     * @param directory export directory
+     * @return stream of exported vessels
+     * @throws UncheckedIOException if export cannot be read
+     */
+    public static Stream<Vessel> read(final Path directory) {
+        final List<Path> files;
+        try (final Stream<Path> paths = Files.list(directory)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files.stream().flatMap(VesselExporter::readFile);
+    }
+
+    /**
+     * Read vessels of input file, lazily.
+     *
+     * @param file file of a sub-range
+     * @return stream of vessels, which closes the file once closed
+     */
+    private static Stream<Vessel> readFile(final Path file) {
+        try {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            final Iterator<Vessel> vessels;
+            try {
+                vessels = VesselExportFormat.read(input);
+            } catch (final IOException e) {
+                input.close();
+                throw e;
+            }
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(vessels,
+                    Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        try {
+                            input.close();
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * Export all sub-ranges that are not exported yet, and wait for completion.
+     *
+     * @return number of vessels exported by this run
+     * @throws UncheckedIOException  if manifest cannot be read or written
+     * @throws IllegalStateException if some sub-ranges could not be exported (export is to be run again)
+     */
+    public long export() {
+        final List<TokenRange> ranges = this.loadRanges();
+        final List<Integer> pending = IntStream.range(0, ranges.size())
+                .filter(index -> !Files.exists(this.getFile(index, EXTENSION)))
+                .boxed()
+                .collect(Collectors.toList());
+        LOGGER.debug("Export {} of {} sub-range(s) into {}", pending.size(), ranges.size(), this.directory);
+        final PreparedStatement select = this.session.prepare(select("uuid", "vessel", "last_departure_port", "last_departure_time")
+                .from("vessels_by_uuid")
+                .where(gt(token("uuid"), bindMarker()))
+                .and(lte(token("uuid"), bindMarker())));
+        final AtomicLong exported = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+        final List<Future<?>> scans = new ArrayList<>(pending.size());
+        try {
+            for (final int index : pending) {
+                scans.add(executor.submit(() -> exported.addAndGet(this.exportRange(select, index, ranges.get(index)))));
+            }
+            long failures = 0L;
+            for (final Future<?> scan : scans) {
+                try {
+                    scan.get();
+                } catch (final ExecutionException e) {
+                    LOGGER.warn("Failed to export sub-range", e.getCause());
+                    failures++;
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Export interrupted", e);
+                }
+            }
+            if (failures > 0L) {
+                throw new IllegalStateException(String.format("Failed to export %d of %d sub-range(s)", failures,
+                        pending.size()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOGGER.debug("Exported {} vessel(s)", exported.get());
+        return exported.get();
+    }
+
+    /**
+     * Load sub-ranges from manifest, or split the token ring and write manifest if there is none.
+     *
+     * @return sub-ranges, in manifest order
+     * @throws UncheckedIOException if manifest cannot be read or written
+     */
+    private List<TokenRange> loadRanges() {
+        final Metadata metadata = this.session.getCluster().getMetadata();
+        final Path manifest = this.directory.resolve(MANIFEST);
+        try {
+            if (Files.exists(manifest)) {
+                final List<TokenRange> res = new ArrayList<>();
+                for (final String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                    final String[] tokens = line.split(" ");
+                    res.add(metadata.newTokenRange(metadata.newToken(tokens[0]), metadata.newToken(tokens[1])));
+                }
+                LOGGER.debug("Resume export of {} sub-range(s)", res.size());
+                return res;
+            }
+            final List<TokenRange> res = this.split(metadata);
+            final List<String> lines = res.stream()
+                    .map(range -> range.getStart() + " " + range.getEnd())
+                    .collect(Collectors.toList());
+            Files.createDirectories(this.directory);
+            final Path part = this.directory.resolve(MANIFEST + PART_EXTENSION);
+            Files.write(part, lines, StandardCharsets.UTF_8);
+            Files.move(part, manifest, StandardCopyOption.ATOMIC_MOVE);
+            return res;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to load manifest " + manifest, e);
+        }
+    }
+
+    /**
+     * Split token ring into sub-ranges, which do not wrap around.
+     *
+     * @param metadata cluster metadata
+     * @return sub-ranges, sorted
+     */
+    private List<TokenRange> split(final Metadata metadata) {
+        final List<TokenRange> ring = new ArrayList<>(metadata.getTokenRanges());
+        final int splitsPerRange = Math.max(1, (this.splits + ring.size() - 1) / ring.size());
+        final List<TokenRange> res = new ArrayList<>();
+        for (final TokenRange range : ring) {
+            for (final TokenRange split : range.splitEvenly(splitsPerRange)) {
+                res.addAll(split.unwrap());
+            }
+        }
+        Collections.sort(res);
+        return res;
+    }
+
+    /**
+     * Export vessels of input sub-range into its file, page by page.
+     *
+     * @param select prepared select query, with start and end token parameters
+     * @param index  index of sub-range
+     * @param range  sub-range
+     * @return number of exported vessels
+     * @throws UncheckedIOException if file cannot be written
+     */
+    private long exportRange(final PreparedStatement select, final int index, final TokenRange range) {
+        final Path part = this.getFile(index, PART_EXTENSION);
+        final Statement query = select.bind()
+                .setToken(0, range.getStart())
+                .setToken(1, range.getEnd())
+                .setIdempotent(true);
+        long res = 0L;
+        try {
+            try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(part)))) {
+                VesselExportFormat.writeHeader(output);
+                final Iterator<Vessel> vessels = new PagedVesselIterator(this.session,
+                        Collections.singletonList(query).iterator(), this.fetchSize);
+                while (vessels.hasNext()) {
+                    VesselExportFormat.write(output, vessels.next());
+                    res++;
+                }
+                VesselExportFormat.writeEnd(output);
+            }
+            Files.move(part, this.getFile(index, EXTENSION), StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to export sub-range " + range, e);
+        }
+        LOGGER.trace("Exported {} vessel(s) of sub-range {}", res, range);
+        return res;
+    }
+
+    /**
+     * Get file of input sub-range.
+     *
+     * @param index     index of sub-range
+     * @param extension file extension
+     * @return file
+     */
+    private Path getFile(final int index, final String extension) {
+        return this.directory.resolve(String.format("range-%06d%s", index, extension));
+    }
+
+    /**
+     * Builder.
+     */
+    public static final class Builder {
+
+        private final Session session;
+        private final Path directory;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int splits = 0;
+        private int fetchSize = DEFAULT_FETCH_SIZE;
+
+        /**
+         * Private constructor.
+         *
+         * @param session   session
+         * @param directory export directory
+         */
+        private Builder(final Session session, final Path directory) {
+            this.session = session;
+            this.directory = directory;
+        }
+
+        /**
+         * Update builder with input number of sub-ranges scanned at a time (number of available processors by
+         * default).
+         *
+         * @param parallelism number of sub-ranges scanned at a time
+         * @return current builder instance
+         */
+        public Builder withParallelism(final int parallelism) {
+            checkArgument(parallelism > 0, "Parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Update builder with input minimum number of sub-ranges of the token ring (16 per scanning thread by
+         * default). It is ignored when an interrupted export is resumed.
+         *
+         * @param splits minimum number of sub-ranges
+         * @return current builder instance
+         */
+        public Builder withSplits(final int splits) {
+            checkArgument(splits > 0, "Number of sub-ranges must be positive");
+            this.splits = splits;
+            return this;
+        }
+
+        /**
+         * Update builder with input number of rows fetched per page (1000 by default).
+         *
+         * @param fetchSize number of rows fetched per page
+         * @return current builder instance
+         */
+        public Builder withFetchSize(final int fetchSize) {
+            checkArgument(fetchSize > 0, "Fetch size must be positive");
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
+        /**
+         * Build exporter instance.
+         *
+         * @return exporter
+         */
+        public VesselExporter build() {
+            return new VesselExporter(this.session, this.directory, this.parallelism,
+                    this.splits > 0 ? this.splits : this.parallelism * DEFAULT_SPLITS_PER_THREAD, this.fetchSize);
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package test.sdc.cassandra;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Metrics of vessel service operations.
+ * <p>
+ * For each operation, the following metrics are registered, named after {@link VesselService} and the operation (e.g.
+ * "test.sdc.cassandra.VesselService.find.latency"):
+ * <ul>
+ * <li>latency: timer of whole operations (including cache hits), with call count and rates</li>
+ * <li>round-trip: timer of Cassandra requests, from submission until result set is available</li>
+ * <li>mapping: timer of the mapping of result sets into domain data model</li>
+ * <li>rows: meter of the vessels returned</li>
+ * <li>errors: meter of failed operations</li>
+ * </ul>
+ * Timers record all values into high dynamic range histograms, and their percentiles cover the last minute.
+ */
+final class VesselMetrics {
+
+    private final Map<VesselOperation, OperationMetrics> operations = new EnumMap<>(VesselOperation.class);
+
+    /**
+     * Constructor.
+     *
+     * @param registry registry that metrics are registered into (metrics that are already registered are reused)
+     */
+    VesselMetrics(final MetricRegistry registry) {
+        for (final VesselOperation operation : VesselOperation.values()) {
+            this.operations.put(operation, new OperationMetrics(registry, operation));
+        }
+    }
+
+    /**
+     * Record execution of input operation.
+     *
+     * @param operation operation
+     * @param call      execution of operation
+     * @param rowCount  number of vessels returned by operation, from its result
+     * @param <T>       result type
+     * @return result
+     */
+    public <T> T track(final VesselOperation operation, final Supplier<T> call, final ToIntFunction<? super T> rowCount) {
+        final OperationMetrics metrics = this.operations.get(operation);
+        final Timer.Context context = metrics.latency.time();
+        try {
+            final T res = call.get();
+            metrics.rows.mark(rowCount.applyAsInt(res));
+            return res;
+        } catch (final RuntimeException e) {
+            metrics.errors.mark();
+            throw e;
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Record execution of input asynchronous operation, until its completion.
+     *
+     * @param operation operation
+     * @param call      execution of operation
+     * @param rowCount  number of vessels returned by operation, from its result
+     * @param <T>       result type
+     * @return future result
+     */
+    public <T> CompletableFuture<T> trackAsync(final VesselOperation operation, final Supplier<CompletableFuture<T>> call,
+                                               final ToIntFunction<? super T> rowCount) {
+        final OperationMetrics metrics = this.operations.get(operation);
+        final Timer.Context context = metrics.latency.time();
+        final CompletableFuture<T> res;
+        try {
+            res = call.get();
+        } catch (final RuntimeException e) {
+            context.stop();
+            metrics.errors.mark();
+            throw e;
+        }
+        return res.whenComplete((result, failure) -> {
+            context.stop();
+            if (failure == null) {
+                metrics.rows.mark(rowCount.applyAsInt(result));
+            } else {
+                metrics.errors.mark();
+            }
+        });
+    }
+
+    /**
+     * Record execution of input operation, which returns no vessel.
+     *
+     * @param operation operation
+     * @param call      execution of operation
+     */
+    public void track(final VesselOperation operation, final Runnable call) {
+        this.track(operation, () -> {
+            call.run();
+            return null;
+        }, result -> 0);
+    }
+
+    /**
+     * Record execution of input asynchronous operation, which returns no vessel, until its completion.
+     *
+     * @param operation operation
+     * @param call      execution of operation
+     * @return future completed once operation is completed
+     */
+    public CompletableFuture<Void> trackAsync(final VesselOperation operation, final Supplier<CompletableFuture<Void>> call) {
+        return this.trackAsync(operation, call, result -> 0);
+    }
+
+    /**
+     * Get timer of Cassandra requests of input operation.
+     *
+     * @param operation operation
+     * @return round-trip timer
+     */
+    public Timer getRoundTripTimer(final VesselOperation operation) {
+        return this.operations.get(operation).roundTrip;
+    }
+
+    /**
+     * Get timer of the mapping of result sets of input operation.
+     *
+     * @param operation operation
+     * @return mapping timer
+     */
+    public Timer getMappingTimer(final VesselOperation operation) {
+        return this.operations.get(operation).mapping;
+    }
+
+    /**
+     * Metrics of an operation.
+     */
+    private static final class OperationMetrics {
+
+        private final Timer latency;
+        private final Timer roundTrip;
+        private final Timer mapping;
+        private final Meter rows;
+        private final Meter errors;
+
+        /**
+         * Constructor.
+         *
+         * @param registry  registry
+         * @param operation operation
+         */
+        private OperationMetrics(final MetricRegistry registry, final VesselOperation operation) {
+            this.latency = timer(registry, operation, "latency");
+            this.roundTrip = timer(registry, operation, "round-trip");
+            this.mapping = timer(registry, operation, "mapping");
+            this.rows = registry.meter(MetricRegistry.name(VesselService.class, operation.getMetricName(), "rows"));
+            this.errors = registry.meter(MetricRegistry.name(VesselService.class, operation.getMetricName(), "errors"));
+        }
+
+        /**
+         * Get or register timer of input operation, backed by a high dynamic range histogram.
+         *
+         * @param registry  registry
+         * @param operation operation
+         * @param name      name of the timer
+         * @return timer
+         */
+        private static Timer timer(final MetricRegistry registry, final VesselOperation operation, final String name) {
+            return registry.timer(MetricRegistry.name(VesselService.class, operation.getMetricName(), name),
+                    () -> new Timer(new HdrHistogramReservoir()));
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package test.sdc.cassandra;
+
+/**
+ * Operations of vessel service, which metrics are recorded for.
+ * <p>
+ * Synchronous and asynchronous variants of an operation are recorded as the same operation.
+ */
+enum VesselOperation {
+
+    FIND("find"),
+    FIND_ALL("findAll"),
+    FIND_BY_NAME_FRAGMENT("findByNameFragment"),
+    FIND_BY_CATEGORY("findByCategory"),
+    FIND_ALL_SUMMARIES("findAllSummaries"),
+    FIND_SUMMARIES_BY_NAME_FRAGMENT("findSummariesByNameFragment"),
+    FIND_SUMMARIES_BY_CATEGORY("findSummariesByCategory"),
+    FIND_BY_DEPARTURE_PORT("findByDeparturePort"),
+    ADD("add"),
+    UPDATE("update"),
+    RECORD_DEPARTURE("recordDeparture"),
+    REMOVE("remove"),;
+
+    private final String metricName;
+
+    /**
+     * Constructor.
+     *
+     * @param metricName name of the operation in metric names
+     */
+    VesselOperation(final String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Get name of the operation in metric names.
+     *
+     * @return metric name
+     */
+    public String getMetricName() {
+        return this.metricName;
+    }
+
+}
@@ -0,0 +1,320 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.RegularStatement;
+
+import java.util.Optional;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.*;
+
+/**
+ * Vessel queries, which are prepared once and bound on each call.
+ */
+enum VesselQueryType {
+
+    /**
+     * Parameters: UUID.
+     */
+    FIND(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return select(VESSELS_BY_UUID_COLUMNS)
+                    .from("vessels_by_uuid")
+                    .where(eq("uuid", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key.
+     */
+    FIND_ALL {
+        @Override
+        public RegularStatement getStatement() {
+            return select(VESSELS_COLUMNS)
+                    .from("vessels")
+                    .where(eq("visibility", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, LIKE pattern.
+     */
+    FIND_BY_NAME_FRAGMENT {
+        @Override
+        public RegularStatement getStatement() {
+            return select(VESSELS_COLUMNS)
+                    .from("vessels")
+                    .where(eq("visibility", bindMarker()))
+                    .and(like("name", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, vessel category.
+     */
+    FIND_BY_CATEGORY {
+        @Override
+        public RegularStatement getStatement() {
+            return select(VESSELS_COLUMNS)
+                    .from("vessels_by_category")
+                    .where(eq("visibility", bindMarker()))
+                    .and(eq("category", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key.
+     */
+    FIND_ALL_SUMMARIES {
+        @Override
+        public RegularStatement getStatement() {
+            return select(SUMMARY_COLUMNS)
+                    .from("vessels")
+                    .where(eq("visibility", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, LIKE pattern.
+     */
+    FIND_SUMMARIES_BY_NAME_FRAGMENT {
+        @Override
+        public RegularStatement getStatement() {
+            return select(SUMMARY_COLUMNS)
+                    .from("vessels")
+                    .where(eq("visibility", bindMarker()))
+                    .and(like("name", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, vessel category.
+     */
+    FIND_SUMMARIES_BY_CATEGORY {
+        @Override
+        public RegularStatement getStatement() {
+            return select(SUMMARY_COLUMNS)
+                    .from("vessels_by_category")
+                    .where(eq("visibility", bindMarker()))
+                    .and(eq("category", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: last departure port, departure bucket, lower bound of last departure time.
+     */
+    FIND_BY_DEPARTURE_PORT {
+        @Override
+        public RegularStatement getStatement() {
+            return select(VESSELS_BY_DEPARTURE_PORT_COLUMNS)
+                    .from("vessels_by_departure_port")
+                    .where(eq("last_departure_port", bindMarker()))
+                    .and(eq("departure_bucket", bindMarker()))
+                    .and(gt("last_departure_time", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, UUID, vessel, name, category, last departure port, last departure time.
+     */
+    SAVE_INTO_VESSELS(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return insertInto("vessels")
+                    .value("visibility", bindMarker())
+                    .value("uuid", bindMarker())
+                    .value("vessel", bindMarker())
+                    .value("name", bindMarker())
+                    .value("category", bindMarker())
+                    .value("last_departure_port", bindMarker())
+                    .value("last_departure_time", bindMarker());
+        }
+    },
+
+    /**
+     * Parameters: last departure port, last departure time, visibility key, UUID.
+     */
+    RECORD_DEPARTURE_IN_VESSELS(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return update("vessels")
+                    .with(set("last_departure_port", bindMarker()))
+                    .and(set("last_departure_time", bindMarker()))
+                    .where(eq("visibility", bindMarker()))
+                    .and(eq("uuid", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, UUID.
+     */
+    DELETE_FROM_VESSELS(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return delete()
+                    .from("vessels")
+                    .where(eq("visibility", bindMarker()))
+                    .and(eq("uuid", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: UUID, vessel, last departure port, last departure time.
+     */
+    SAVE_INTO_VESSELS_BY_UUID(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return insertInto("vessels_by_uuid")
+                    .value("uuid", bindMarker())
+                    .value("vessel", bindMarker())
+                    .value("last_departure_port", bindMarker())
+                    .value("last_departure_time", bindMarker());
+        }
+    },
+
+    /**
+     * Parameters: last departure port, last departure time, UUID.
+     */
+    RECORD_DEPARTURE_IN_VESSELS_BY_UUID(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return update("vessels_by_uuid")
+                    .with(set("last_departure_port", bindMarker()))
+                    .and(set("last_departure_time", bindMarker()))
+                    .where(eq("uuid", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: UUID.
+     */
+    DELETE_FROM_VESSELS_BY_UUID(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return delete()
+                    .from("vessels_by_uuid")
+                    .where(eq("uuid", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, vessel category, UUID, vessel, name, last departure port, last departure time.
+     */
+    SAVE_INTO_VESSELS_BY_CATEGORY(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return insertInto("vessels_by_category")
+                    .value("visibility", bindMarker())
+                    .value("category", bindMarker())
+                    .value("uuid", bindMarker())
+                    .value("vessel", bindMarker())
+                    .value("name", bindMarker())
+                    .value("last_departure_port", bindMarker())
+                    .value("last_departure_time", bindMarker());
+        }
+    },
+
+    /**
+     * Parameters: last departure port, last departure time, visibility key, vessel category, UUID.
+     */
+    RECORD_DEPARTURE_IN_VESSELS_BY_CATEGORY(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return update("vessels_by_category")
+                    .with(set("last_departure_port", bindMarker()))
+                    .and(set("last_departure_time", bindMarker()))
+                    .where(eq("visibility", bindMarker()))
+                    .and(eq("category", bindMarker()))
+                    .and(eq("uuid", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: visibility key, vessel category, UUID.
+     */
+    DELETE_FROM_VESSELS_BY_CATEGORY(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return delete()
+                    .from("vessels_by_category")
+                    .where(eq("visibility", bindMarker()))
+                    .and(eq("category", bindMarker()))
+                    .and(eq("uuid", bindMarker()));
+        }
+    },
+
+    /**
+     * Parameters: last departure port, departure bucket, last departure time, UUID, vessel.
+     */
+    SAVE_INTO_VESSELS_BY_DEPARTURE_PORT(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return insertInto("vessels_by_departure_port")
+                    .value("last_departure_port", bindMarker())
+                    .value("departure_bucket", bindMarker())
+                    .value("last_departure_time", bindMarker())
+                    .value("uuid", bindMarker())
+                    .value("vessel", bindMarker());
+        }
+    },
+
+    /**
+     * Parameters: last departure port, departure bucket, last departure time, UUID.
+     */
+    DELETE_FROM_VESSELS_BY_DEPARTURE_PORT(ConsistencyLevel.LOCAL_QUORUM) {
+        @Override
+        public RegularStatement getStatement() {
+            return delete()
+                    .from("vessels_by_departure_port")
+                    .where(eq("last_departure_port", bindMarker()))
+                    .and(eq("departure_bucket", bindMarker()))
+                    .and(eq("last_departure_time", bindMarker()))
+                    .and(eq("uuid", bindMarker()));
+        }
+    },;
+
+    /*
+     * Columns are listed explicitly rather than selected with a wildcard: as the statement ID does not depend on the
+     * table definition, a wildcard would keep the result set metadata of the time of preparation after a column is
+     * added.
+     */
+    private static final String[] VESSELS_BY_UUID_COLUMNS = {"uuid", "vessel", "last_departure_port", "last_departure_time"};
+    private static final String[] VESSELS_COLUMNS = {"visibility", "uuid", "vessel", "name", "category", "last_departure_port", "last_departure_time"};
+    private static final String[] SUMMARY_COLUMNS = {"uuid", "name", "category"};
+    private static final String[] VESSELS_BY_DEPARTURE_PORT_COLUMNS = {"last_departure_port", "departure_bucket", "last_departure_time", "uuid", "vessel"};
+
+    private final ConsistencyLevel consistencyLevel;
+
+    /**
+     * Constructor, for a query with the default consistency level of the cluster.
+     */
+    VesselQueryType() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param consistencyLevel consistency level
+     */
+    VesselQueryType(final ConsistencyLevel consistencyLevel) {
+        this.consistencyLevel = consistencyLevel;
+    }
+
+    /**
+     * Get consistency level of the query, if it is not the default consistency level of the cluster.
+     *
+     * @return consistency level
+     */
+    public Optional<ConsistencyLevel> getConsistencyLevel() {
+        return Optional.ofNullable(this.consistencyLevel);
+    }
+
+    /**
+     * Get statement to be prepared.
+     *
+     * @return statement to be prepared
+     */
+    public abstract RegularStatement getStatement();
+
+}
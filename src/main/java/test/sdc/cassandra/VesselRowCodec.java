@@ -0,0 +1,107 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.UserType;
+import test.sdc.model.PortReference;
+import test.sdc.model.Vessel;
+import test.sdc.model.VesselDeparture;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Codec of the vessel columns of vessel tables ("uuid" and "vessel" UDT), which decodes rows straight into domain
+ * data model, and binds domain data model straight into statements.
+ * <p>
+ * Unlike the object mapper, it involves neither reflection nor intermediate entities: columns are resolved once per
+ * set of column definitions (result set metadata or bound variables), and accessed by index, while the "vessel" UDT
+ * is read from and written to raw protocol bytes by a {@link VesselUdtCodec}.
+ * <p>
+ * Last departure info is also held by columns of its own ("last_departure_port" and "last_departure_time"), which are
+ * updated without rewriting the frozen UDT: when they are set, they take precedence over the fields of the UDT.
+ */
+final class VesselRowCodec {
+
+    private final int uuidIndex;
+    private final int vesselIndex;
+    private final VesselUdtCodec vesselCodec;
+    private final int lastDeparturePortIndex;
+    private final int lastDepartureTimeIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param columns     column definitions
+     * @param vesselIndex index of "vessel" column
+     */
+    private VesselRowCodec(final ColumnDefinitions columns, final int vesselIndex) {
+        this.uuidIndex = columns.getIndexOf("uuid");
+        this.vesselIndex = vesselIndex;
+        this.vesselCodec = new VesselUdtCodec((UserType) columns.getType(vesselIndex));
+        this.lastDeparturePortIndex = columns.getIndexOf("last_departure_port");
+        this.lastDepartureTimeIndex = columns.getIndexOf("last_departure_time");
+    }
+
+    /**
+     * Build codec for input column definitions, which include "uuid" and "vessel" columns.
+     *
+     * @param columns column definitions of a result set, or variables of a prepared statement
+     * @return codec
+     */
+    public static VesselRowCodec of(final ColumnDefinitions columns) {
+        final int vesselIndex = columns.getIndexOf("vessel");
+        checkArgument(vesselIndex >= 0, "Missing vessel column");
+        return new VesselRowCodec(columns, vesselIndex);
+    }
+
+    /**
+     * Decode input row into domain data model.
+     *
+     * @param row row, with "uuid" and "vessel" columns
+     * @return domain data model object, or null if row holds no vessel (last departure columns only, which may be left
+     * by a departure that is recorded concurrently with the removal of the vessel)
+     */
+    public Vessel decode(final Row row) {
+        final String uuid = row.getUUID(this.uuidIndex).toString();
+        final ByteBuffer vessel = row.getBytesUnsafe(this.vesselIndex);
+        if (this.lastDepartureTimeIndex < 0 || row.isNull(this.lastDepartureTimeIndex)) {
+            return this.vesselCodec.deserialize(uuid, vessel);
+        }
+        final ByteBuffer lastDepartureTime = row.getBytesUnsafe(this.lastDepartureTimeIndex);
+        return this.vesselCodec.deserialize(uuid, vessel, VesselDeparture.of(
+                PortReference.of(row.getString(this.lastDeparturePortIndex)),
+                Instant.ofEpochMilli(lastDepartureTime.getLong(lastDepartureTime.position()))));
+    }
+
+    /**
+     * Bind input domain data model object as the value of "vessel" variable of input statement, and of last departure
+     * variables if any. Last departure variables of a vessel with no last departure info are left unset, unless they
+     * are to be cleared.
+     *
+     * @param statement      bound statement, with "vessel" variable
+     * @param vessel         domain data model object
+     * @param clearDeparture whether last departure variables are to be bound to null if vessel has no last departure
+     *                       info (which writes tombstones), so that existing last departure info is cleared
+     * @return bound statement
+     */
+    public BoundStatement bind(final BoundStatement statement, final Vessel vessel, final boolean clearDeparture) {
+        if (this.lastDeparturePortIndex >= 0 && this.lastDepartureTimeIndex >= 0) {
+            final Optional<VesselDeparture> lastDeparture = vessel.getLastDeparture();
+            if (lastDeparture.isPresent()) {
+                statement.setString(this.lastDeparturePortIndex, lastDeparture.get().getDeparturePort().getUuid());
+                statement.setTimestamp(this.lastDepartureTimeIndex, Date.from(lastDeparture.get().getDepartureTime()));
+            } else if (clearDeparture) {
+                statement.setToNull(this.lastDeparturePortIndex);
+                statement.setToNull(this.lastDepartureTimeIndex);
+            }
+        }
+        return statement.setBytesUnsafe(this.vesselIndex, this.vesselCodec.serialize(vessel));
+    }
+
+}
@@ -0,0 +1,247 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.querybuilder.Insert;
+import org.apache.cassandra.io.sstable.CQLSSTableWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import test.sdc.model.Vessel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Tool that writes vessels into SSTables of all vessel tables, for the initial seeding of an environment: SSTables are
+ * then streamed into the cluster with sstableloader, rather than written through CQL one table row at a time.
+ * <p>
+ * Rows are those that vessel services write: they are bound to the prepared save query of each table, and the bytes of
+ * bound values are written as is. The session is only used to read the schema and prepare these queries; nothing is
+ * written through it. Absent values (last departure info of vessels that never departed) are left unset, so that no
+ * tombstone is written.
+ * <p>
+ * SSTables of a table are written into the "keyspace/table" sub-directory of the output directory, as expected by
+ * sstableloader. Vessels are buffered in memory and written as sorted SSTables once the buffer is full: vessels may be
+ * written in any order, at the cost of several SSTables (which are compacted once loaded) for large inputs.
+ * <p>
+ * The tool requires the Cassandra server classes (cassandra-all), which are not shipped with the application: it is to
+ * be run with the libraries of the Cassandra installation on the classpath.
+ */
+public final class VesselSSTableWriter
+        implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VesselSSTableWriter.class);
+
+    private final VesselStatementRegistry statements;
+    private final Map<VesselTableType, CQLSSTableWriter> writers;
+
+    /**
+     * Constructor.
+     *
+     * @param statements prepared statements
+     * @param writers    SSTable writers, by table
+     */
+    private VesselSSTableWriter(final VesselStatementRegistry statements,
+                                final Map<VesselTableType, CQLSSTableWriter> writers) {
+        this.statements = statements;
+        this.writers = writers;
+    }
+
+    /**
+     * Initialize builder of writer into input directory.
+     *
+     * @param session   session, which is used to read the schema and prepare queries only
+     * @param directory output directory, which is created if needed
+     * @return new builder instance
+     */
+    public static Builder builder(final Session session, final Path directory) {
+        return new Builder(session, directory);
+    }
+
+    /**
+     * Write rows of input vessels into SSTables of all relevant tables.
+     *
+     * @param vessels vessels, with UUID
+     * @return number of written vessels
+     * @throws UncheckedIOException if SSTables cannot be written
+     */
+    public long write(final Iterator<Vessel> vessels) {
+        long res = 0L;
+        while (vessels.hasNext()) {
+            this.write(vessels.next());
+            res++;
+        }
+        LOGGER.debug("Wrote {} vessel(s) into SSTables", res);
+        return res;
+    }
+
+    /**
+     * Write rows of input vessel into SSTables of all relevant tables.
+     *
+     * @param vessel vessel, with UUID
+     * @throws UncheckedIOException if SSTables cannot be written
+     */
+    private void write(final Vessel vessel) {
+        final UUID uuid = UUID.fromString(vessel.getUuid());
+        for (final Map.Entry<VesselTableType, CQLSSTableWriter> writer : this.writers.entrySet()) {
+            if (writer.getKey().isRelevant(vessel)) {
+                try {
+                    writer.getValue().rawAddRow(getValues(this.statements.bindSave(writer.getKey(), uuid, vessel)));
+                } catch (final IOException e) {
+                    throw new UncheckedIOException("Failed to write vessel " + uuid, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get raw values of input bound statement, in the order of its variables.
+     *
+     * @param statement bound statement
+     * @return values (unset values and null values being unset)
+     */
+    private static List<ByteBuffer> getValues(final BoundStatement statement) {
+        final int size = statement.preparedStatement().getVariables().size();
+        final List<ByteBuffer> res = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            final ByteBuffer value = statement.isSet(index) ? statement.getBytesUnsafe(index) : null;
+            res.add(value == null ? CQLSSTableWriter.UNSET_VALUE : value);
+        }
+        return res;
+    }
+
+    /**
+     * Flush remaining buffered rows into SSTables, and release prepared statements.
+     *
+     * @throws UncheckedIOException if SSTables cannot be written
+     */
+    @Override
+    public void close() {
+        try {
+            for (final CQLSSTableWriter writer : this.writers.values()) {
+                writer.close();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to write SSTables", e);
+        } finally {
+            this.statements.close();
+        }
+    }
+
+    /**
+     * Builder.
+     */
+    public static final class Builder {
+
+        private final Session session;
+        private final Path directory;
+        private int globalVisibilityShards = 1;
+        private int bufferSizeInMB = 0;
+
+        /**
+         * Private constructor.
+         *
+         * @param session   session
+         * @param directory output directory
+         */
+        private Builder(final Session session, final Path directory) {
+            this.session = session;
+            this.directory = directory;
+        }
+
+        /**
+         * Update builder with input number of shards of the partition of vessels that are visible to all centers (1 by
+         * default), which must be that of the vessel services of the environment.
+         *
+         * @param globalVisibilityShards number of global shards
+         * @return current builder instance
+         */
+        public Builder withGlobalVisibilityShards(final int globalVisibilityShards) {
+            checkArgument(globalVisibilityShards > 0, "Number of global shards must be positive");
+            this.globalVisibilityShards = globalVisibilityShards;
+            return this;
+        }
+
+        /**
+         * Update builder with input size of the buffer of each table, which is written as an SSTable once full (that
+         * of {@link CQLSSTableWriter} by default).
+         *
+         * @param bufferSizeInMB buffer size, in MB
+         * @return current builder instance
+         */
+        public Builder withBufferSizeInMB(final int bufferSizeInMB) {
+            checkArgument(bufferSizeInMB > 0, "Buffer size must be positive");
+            this.bufferSizeInMB = bufferSizeInMB;
+            return this;
+        }
+
+        /**
+         * Prepare queries and build writer instance.
+         *
+         * @return writer
+         * @throws UncheckedIOException if output directory cannot be created
+         */
+        public VesselSSTableWriter build() {
+            final VesselStatementRegistry statements = VesselStatementRegistry.prepare(this.session,
+                    VisibilityKeys.of(this.globalVisibilityShards, 0));
+            final Map<VesselTableType, CQLSSTableWriter> writers = new EnumMap<>(VesselTableType.class);
+            try {
+                for (final VesselTableType table : VesselTableType.values()) {
+                    writers.put(table, this.buildWriter(statements.get(table.getSaveQuery()).getVariables()));
+                }
+            } catch (final IOException e) {
+                statements.close();
+                throw new UncheckedIOException("Failed to create SSTable directory", e);
+            }
+            return new VesselSSTableWriter(statements, writers);
+        }
+
+        /**
+         * Build SSTable writer of the table of input variables, into its own sub-directory.
+         *
+         * @param variables variables of the save query of the table, which are the columns of written rows
+         * @return SSTable writer
+         * @throws IOException if output directory cannot be created
+         */
+        private CQLSSTableWriter buildWriter(final ColumnDefinitions variables)
+                throws IOException {
+            final String keyspace = variables.getKeyspace(0);
+            final String table = variables.getTable(0);
+            final Metadata metadata = this.session.getCluster().getMetadata();
+            final KeyspaceMetadata keyspaceMetadata = metadata.getKeyspace(Metadata.quote(keyspace));
+            final Insert insert = insertInto(keyspace, table);
+            for (final ColumnDefinitions.Definition variable : variables) {
+                insert.value(variable.getName(), bindMarker());
+            }
+            final Path directory = Files.createDirectories(this.directory.resolve(keyspace).resolve(table));
+            final CQLSSTableWriter.Builder builder = CQLSSTableWriter.builder()
+                    .inDirectory(directory.toFile())
+                    .withType(keyspaceMetadata.getUserType("vessel").asCQLQuery())
+                    .forTable(keyspaceMetadata.getTable(Metadata.quote(table)).asCQLQuery())
+                    .using(insert.getQueryString());
+            if (this.bufferSizeInMB > 0) {
+                builder.withBufferSizeInMB(this.bufferSizeInMB);
+            }
+            LOGGER.trace("Write SSTables of table {}.{} into {}", keyspace, table, directory);
+            return builder.build();
+        }
+    }
+
+}
@@ -1,27 +1,40 @@
 package test.sdc.cassandra;
 
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.datastax.driver.core.BatchStatement;
-import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.PagingState;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
-import com.datastax.driver.core.querybuilder.Select;
-import com.datastax.driver.extras.codecs.enums.EnumNameCodec;
-import com.datastax.driver.mapping.Mapper;
-import com.datastax.driver.mapping.MappingManager;
+import com.datastax.driver.core.Statement;
+import com.google.common.cache.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import test.sdc.cassandra.model.VesselsByDeparturePortTable;
-import test.sdc.cassandra.model.VesselsByUuidTable;
-import test.sdc.cassandra.model.VesselsTable;
 import test.sdc.model.*;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import static com.datastax.driver.core.querybuilder.QueryBuilder.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Interface of vessel service with Cassandra.
@@ -35,8 +48,46 @@ public final class VesselService {
      */
     private static final Duration DEPARTURE_RANGE = Duration.ofHours(20L);
 
+    /**
+     * Default maximum number of requests in flight per bulk operation.
+     */
+    private static final int DEFAULT_MAX_BULK_REQUESTS_IN_FLIGHT = 64;
+
+    /**
+     * Default specification of the cache of vessels by UUID.
+     */
+    private static final String DEFAULT_VESSEL_CACHE_SPEC = "maximumSize=10000,expireAfterWrite=30s";
+
+    /**
+     * Default specification of the cache of vessels table partitions.
+     */
+    private static final String DEFAULT_VISIBILITY_CACHE_SPEC = "maximumSize=1000,expireAfterWrite=10s";
+
+    /**
+     * JMX domain of vessel service metrics.
+     */
+    private static final String JMX_DOMAIN = "test.sdc.cassandra";
+
     private Session session;
-    private MappingManager mappingManager;
+    private VesselStatementRegistry statements;
+    private int globalVisibilityShards = 1;
+    private int formerGlobalVisibilityShards = 0;
+    private VisibilityKeys visibilityKeys;
+    private Executor executor = ForkJoinPool.commonPool();
+    private int maxBulkRequestsInFlight = DEFAULT_MAX_BULK_REQUESTS_IN_FLIGHT;
+    private boolean vesselCacheEnabled = false;
+    private String vesselCacheSpec = DEFAULT_VESSEL_CACHE_SPEC;
+    private VesselCache vesselCache;
+    private boolean cachedPriorStateEnabled = false;
+    private boolean visibilityCacheEnabled = false;
+    private String visibilityCacheSpec = DEFAULT_VISIBILITY_CACHE_SPEC;
+    private VisibilityPartitionCache visibilityCache;
+    private boolean nameFragmentIndexEnabled = false;
+    private NameFragmentIndex nameFragmentIndex;
+    private MetricRegistry metricRegistry = new MetricRegistry();
+    private boolean jmxReportingEnabled = false;
+    private VesselMetrics metrics;
+    private JmxReporter jmxReporter;
 
     /**
      * Set session.
@@ -47,14 +98,232 @@ public final class VesselService {
         this.session = session;
     }
 
+    /**
+     * Set number of shards of the partition of vessels that are visible to all centers (1 by default, i.e. no
+     * sharding).
+     * <p>
+     * Vessels are assigned to shards by UUID, and shards are read concurrently. Existing vessels are to be moved to
+     * their new shards with {@link VisibilityResharder} after the number of shards is changed.
+     *
+     * @param globalVisibilityShards number of global shards
+     * @see #setFormerGlobalVisibilityShards(int)
+     */
+    public void setGlobalVisibilityShards(final int globalVisibilityShards) {
+        this.globalVisibilityShards = globalVisibilityShards;
+    }
+
+    /**
+     * Set former number of shards of the partition of vessels that are visible to all centers, while existing vessels
+     * are being resharded (0 by default, i.e. no resharding in progress).
+     * <p>
+     * Shards of both layouts are then read (a vessel being returned once), and rows of the former layout are deleted
+     * when vessels are written, so that vessels can be resharded online.
+     *
+     * @param formerGlobalVisibilityShards former number of global shards, or 0
+     */
+    public void setFormerGlobalVisibilityShards(final int formerGlobalVisibilityShards) {
+        this.formerGlobalVisibilityShards = formerGlobalVisibilityShards;
+    }
+
+    /**
+     * Set executor used to complete asynchronous operations (common fork/join pool by default).
+     * <p>
+     * Result sets are mapped by this executor rather than by driver I/O threads, and so are dependent stages of the
+     * futures that are returned by asynchronous operations.
+     *
+     * @param executor executor
+     */
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Set maximum number of requests in flight per bulk operation.
+     *
+     * @param maxBulkRequestsInFlight maximum number of requests in flight per bulk operation
+     */
+    public void setMaxBulkRequestsInFlight(final int maxBulkRequestsInFlight) {
+        this.maxBulkRequestsInFlight = maxBulkRequestsInFlight;
+    }
+
+    /**
+     * Enable or disable the cache of vessels by UUID (disabled by default).
+     * <p>
+     * The cache is kept up to date by writes of the current instance only: writes of other instances are not visible
+     * to {@link #find(String)} until entries expire.
+     *
+     * @param vesselCacheEnabled is cache of vessels by UUID enabled
+     */
+    public void setVesselCacheEnabled(final boolean vesselCacheEnabled) {
+        this.vesselCacheEnabled = vesselCacheEnabled;
+    }
+
+    /**
+     * Set specification of the cache of vessels by UUID, which bounds its size and the time entries are kept.
+     *
+     * @param vesselCacheSpec specification, in the format of {@link com.google.common.cache.CacheBuilderSpec}
+     *                        (e.g. "maximumSize=10000,expireAfterWrite=30s")
+     */
+    public void setVesselCacheSpec(final String vesselCacheSpec) {
+        this.vesselCacheSpec = vesselCacheSpec;
+    }
+
+    /**
+     * Enable or disable the use of the cache of vessels by UUID as the prior state of vessels that are updated or
+     * removed by UUID (disabled by default), which saves a read per write on cache hits if the cache is enabled (see
+     * {@link #setVesselCacheEnabled(boolean)}).
+     * <p>
+     * Cached prior state may be outdated if vessels are also written by other instances, in which case rows of the
+     * actual prior state (e.g. another visibility) may be left behind: only enable it if this instance is the only
+     * writer of vessels.
+     *
+     * @param cachedPriorStateEnabled is cache of vessels by UUID used as prior state of written vessels
+     */
+    public void setCachedPriorStateEnabled(final boolean cachedPriorStateEnabled) {
+        this.cachedPriorStateEnabled = cachedPriorStateEnabled;
+    }
+
+    /**
+     * Get statistics of the cache of vessels by UUID.
+     *
+     * @return hit, miss and eviction counts
+     */
+    public CacheStats getVesselCacheStats() {
+        return this.vesselCache.getStats();
+    }
+
+    /**
+     * Enable or disable the cache of vessels table partitions, which is used to get all vessels that are visible to
+     * site (disabled by default).
+     * <p>
+     * The cache is kept up to date by writes of the current instance only: writes of other instances are not visible
+     * to {@link #findAll(CenterReference)} until entries expire.
+     *
+     * @param visibilityCacheEnabled is cache of vessels table partitions enabled
+     */
+    public void setVisibilityCacheEnabled(final boolean visibilityCacheEnabled) {
+        this.visibilityCacheEnabled = visibilityCacheEnabled;
+    }
+
+    /**
+     * Set specification of the cache of vessels table partitions, which bounds the number of partitions and the time
+     * they are kept.
+     *
+     * @param visibilityCacheSpec specification, in the format of {@link com.google.common.cache.CacheBuilderSpec}
+     *                            (e.g. "maximumSize=1000,expireAfterWrite=10s")
+     */
+    public void setVisibilityCacheSpec(final String visibilityCacheSpec) {
+        this.visibilityCacheSpec = visibilityCacheSpec;
+    }
+
+    /**
+     * Get statistics of the cache of vessels table partitions.
+     *
+     * @return hit, miss and eviction counts
+     */
+    public CacheStats getVisibilityCacheStats() {
+        return this.visibilityCache.getStats();
+    }
+
+    /**
+     * Enable or disable the in-memory index of vessel names, which is used to find vessels by name fragment instead of
+     * the SASI index of vessels table (disabled by default).
+     * <p>
+     * The index is loaded at initialization, and kept up to date by writes of the current instance only.
+     *
+     * @param nameFragmentIndexEnabled is in-memory index of vessel names enabled
+     * @see #reloadNameFragmentIndex()
+     */
+    public void setNameFragmentIndexEnabled(final boolean nameFragmentIndexEnabled) {
+        this.nameFragmentIndexEnabled = nameFragmentIndexEnabled;
+    }
+
+    /**
+     * Set registry that metrics of vessel operations are registered into (a registry of its own by default).
+     * <p>
+     * Metrics can be reported to any monitoring system by attaching a reporter to this registry.
+     *
+     * @param metricRegistry metric registry
+     * @see #getMetricRegistry()
+     */
+    public void setMetricRegistry(final MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Get registry that metrics of vessel operations are registered into.
+     * <p>
+     * For each operation (find, findAll, findByNameFragment, findByCategory, findByDeparturePort, add, update,
+     * recordDeparture and remove), metrics are named after this class and the operation (e.g. "test.sdc.cassandra.VesselService.find.latency"):
+     * <ul>
+     * <li>latency: timer of whole operations (including cache hits)</li>
+     * <li>round-trip: timer of Cassandra requests, until all rows are fetched</li>
+     * <li>mapping: timer of the mapping of result sets into domain data model</li>
+     * <li>rows: meter of the vessels returned</li>
+     * <li>errors: meter of failed operations</li>
+     * </ul>
+     *
+     * @return metric registry
+     */
+    public MetricRegistry getMetricRegistry() {
+        return this.metricRegistry;
+    }
+
+    /**
+     * Enable or disable reporting of metrics over JMX, in domain "test.sdc.cassandra" (disabled by default).
+     * <p>
+     * The reporter registers metrics of the registry of this instance: if several instances are reported, they are to
+     * be given distinct registries, or the owner of a shared registry is to start a reporter instead.
+     *
+     * @param jmxReportingEnabled is reporting of metrics over JMX enabled
+     */
+    public void setJmxReportingEnabled(final boolean jmxReportingEnabled) {
+        this.jmxReportingEnabled = jmxReportingEnabled;
+    }
+
     /**
      * Method called on the newly constructed instance, after any dependency injection has been performed by the container and before the first business method is invoked on the bean.
      */
     @PostConstruct
     public void postConstruct() {
-        CodecRegistry.DEFAULT_INSTANCE
-                .register(new EnumNameCodec<>(VisibilityType.class));
-        this.mappingManager = new MappingManager(this.session);
+        this.visibilityKeys = VisibilityKeys.of(this.globalVisibilityShards, this.formerGlobalVisibilityShards);
+        this.statements = VesselStatementRegistry.prepare(this.session, this.visibilityKeys);
+        this.vesselCache = this.vesselCacheEnabled
+                ? VesselCache.from(this.vesselCacheSpec)
+                : VesselCache.disabled();
+        this.visibilityCache = this.visibilityCacheEnabled
+                ? VisibilityPartitionCache.from(this.visibilityCacheSpec)
+                : VisibilityPartitionCache.disabled();
+        if (this.nameFragmentIndexEnabled) {
+            this.nameFragmentIndex = NameFragmentIndex.load(this.session);
+        }
+        this.metrics = new VesselMetrics(this.metricRegistry);
+        if (this.jmxReportingEnabled) {
+            this.jmxReporter = JmxReporter.forRegistry(this.metricRegistry)
+                    .inDomain(JMX_DOMAIN)
+                    .build();
+            this.jmxReporter.start();
+        }
+    }
+
+    /**
+     * Load in-memory index of vessel names again from vessels table, so that writes of other instances are taken into
+     * account.
+     */
+    public void reloadNameFragmentIndex() {
+        checkState(this.nameFragmentIndex != null, "Name fragment index is disabled");
+        this.nameFragmentIndex = NameFragmentIndex.load(this.session);
+    }
+
+    /**
+     * Method called before the instance is removed by the container.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        if (this.jmxReporter != null) {
+            this.jmxReporter.stop();
+        }
+        this.statements.close();
     }
 
     /**
@@ -64,18 +333,97 @@ public final class VesselService {
      * @return list of all visible vessels
      */
     public List<Vessel> findAll(final CenterReference center) {
+        return CompletableFutures.getUninterruptibly(this.findAllAsync(center));
+    }
+
+    /**
+     * Get list of all vessels that are visible to site, asynchronously.
+     *
+     * @param center center
+     * @return future list of all visible vessels
+     * @see #findAll(CenterReference)
+     */
+    public CompletableFuture<List<Vessel>> findAllAsync(final CenterReference center) {
         LOGGER.trace("Find vessels by site ID: {}", center);
-        final Mapper<VesselsTable> mapper = this.mappingManager.mapper(VesselsTable.class);
-        final Select.Where query = select().all()
-                .from("vessels")
-                .where(in("visibility", VesselsTable.getGlobalVisibilityKey(), center.getUuid()));
-        LOGGER.trace("CQL query: {}", query);
-        final ResultSet result = this.session.execute(query);
-        final List<VesselsTable> res = mapper.map(result).all();
-        LOGGER.trace("Found {} match(es) for center={}", res.size(), center);
-        return res.stream()
-                .map(VesselsTable::toDomainModel)
-                .collect(Collectors.toList());
+        return this.metrics.trackAsync(VesselOperation.FIND_ALL, () -> this.findInVisibilityPartitions(center, visibility -> {
+            final Optional<List<Vessel>> cached = this.visibilityCache.get(visibility);
+            if (cached.isPresent()) {
+                LOGGER.trace("Found cached partition for visibility={}", visibility);
+                return CompletableFuture.completedFuture(cached.get());
+            }
+            final long stamp = this.visibilityCache.getStamp(visibility);
+            return this.findInPartition(VesselOperation.FIND_ALL, this.readQuery(VesselQueryType.FIND_ALL, visibility))
+                    .thenApply(res -> this.visibilityCache.put(visibility, res, stamp));
+        })
+                .thenApply(res -> {
+                    LOGGER.trace("Found {} match(es) for center={}", res.size(), center);
+                    return res;
+                }), List::size);
+    }
+
+    /**
+     * Stream all vessels that are visible to site.
+     * <p>
+     * Rows are fetched lazily, page by page, while the stream is consumed: memory footprint does not depend on the
+     * number of visible vessels. While vessels are resharded, a vessel may be streamed twice.
+     *
+     * @param center    center
+     * @param fetchSize number of rows fetched per page
+     * @return stream of all visible vessels
+     */
+    public Stream<Vessel> streamAll(final CenterReference center, final int fetchSize) {
+        checkArgument(fetchSize > 0, "Fetch size must be positive");
+        LOGGER.trace("Stream vessels by site ID: {}", center);
+        final Iterator<Statement> queries = this.visibilityKeys.of(center).stream()
+                .map(visibility -> this.readQuery(VesselQueryType.FIND_ALL, visibility))
+                .iterator();
+        final Iterator<Vessel> vessels = new PagedVesselIterator(this.session, queries, fetchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(vessels,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Get page of vessels that are visible to site.
+     * <p>
+     * While vessels are resharded, a vessel may be returned twice, and tokens are not valid across a change of the
+     * number of global shards.
+     *
+     * @param center    center
+     * @param pageSize  maximum number of vessels in page
+     * @param pageToken token returned with previous page, or null to get first page
+     * @return page of visible vessels
+     * @throws IllegalArgumentException if page token is not valid
+     */
+    public VesselPage findAll(final CenterReference center, final int pageSize, final String pageToken) {
+        checkArgument(pageSize > 0, "Page size must be positive");
+        LOGGER.trace("Find page of vessels by site ID: {}", center);
+        return this.metrics.track(VesselOperation.FIND_ALL, () -> {
+            final List<String> visibilityKeys = this.visibilityKeys.of(center);
+            final List<Vessel> res = new ArrayList<>(pageSize);
+            Optional<PagingToken> position = Optional.of(pageToken == null
+                    ? PagingToken.first()
+                    : PagingToken.parse(pageToken, visibilityKeys.size()));
+            while (position.isPresent() && res.size() < pageSize) {
+                final PagingToken current = position.get();
+                final Statement query = this.readQuery(VesselQueryType.FIND_ALL, visibilityKeys.get(current.getPartition()))
+                        .setFetchSize(pageSize - res.size());
+                current.getPagingState().ifPresent(query::setPagingState);
+                final PagingState next = this.execute(VesselOperation.FIND_ALL, query, result -> {
+                    final VesselRowCodec codec = VesselRowCodec.of(result.getColumnDefinitions());
+                    final int available = result.getAvailableWithoutFetching();
+                    for (int i = 0; i < available; i++) {
+                        final Vessel vessel = codec.decode(result.one());
+                        if (vessel != null) {
+                            res.add(vessel);
+                        }
+                    }
+                    return result.getExecutionInfo().getPagingState();
+                });
+                position = current.next(next, visibilityKeys.size());
+            }
+            LOGGER.trace("Found {} match(es) in page for center={}", res.size(), center);
+            return VesselPage.of(res, position.map(PagingToken::toString).orElse(null));
+        }, page -> page.getVessels().size());
     }
 
     /**
@@ -86,10 +434,125 @@ public final class VesselService {
      */
     public Optional<Vessel> find(final String uuid) {
         LOGGER.trace("Find vessel by UUID '{}'", uuid);
-        final Mapper<VesselsByUuidTable> mapper = this.mappingManager.mapper(VesselsByUuidTable.class);
-        final VesselsByUuidTable entity = mapper.get(UUID.fromString(uuid));
-        LOGGER.trace("Found {}match for vessel ID={}", entity == null ? "no " : "", uuid);
-        return Optional.ofNullable(entity).map(VesselsByUuidTable::toDomainModel);
+        return this.metrics.track(VesselOperation.FIND, () -> this.findVessel(VesselOperation.FIND, uuid),
+                res -> res.isPresent() ? 1 : 0);
+    }
+
+    /**
+     * Get vessel from selected UUID, asynchronously.
+     *
+     * @param uuid UUID
+     * @return future vessel
+     * @see #find(String)
+     */
+    public CompletableFuture<Optional<Vessel>> findAsync(final String uuid) {
+        LOGGER.trace("Find vessel by UUID asynchronously '{}'", uuid);
+        return this.metrics.trackAsync(VesselOperation.FIND, () -> this.findVesselAsync(VesselOperation.FIND, uuid),
+                res -> res.isPresent() ? 1 : 0);
+    }
+
+    /**
+     * Get vessel from selected UUID, from cache or from vessels by UUID table.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @return vessel
+     */
+    private Optional<Vessel> findVessel(final VesselOperation operation, final String uuid) {
+        final Optional<Vessel> cached = this.vesselCache.get(uuid);
+        if (cached.isPresent()) {
+            LOGGER.trace("Found cached match for vessel ID={}", uuid);
+            return cached;
+        }
+        return this.readVessel(operation, uuid);
+    }
+
+    /**
+     * Get vessel from selected UUID, from cache or from vessels by UUID table, asynchronously.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @return future vessel
+     */
+    private CompletableFuture<Optional<Vessel>> findVesselAsync(final VesselOperation operation, final String uuid) {
+        final Optional<Vessel> cached = this.vesselCache.get(uuid);
+        if (cached.isPresent()) {
+            LOGGER.trace("Found cached match for vessel ID={}", uuid);
+            return CompletableFuture.completedFuture(cached);
+        }
+        return this.readVesselAsync(operation, uuid);
+    }
+
+    /**
+     * Get prior state of vessel with input UUID, before it is written: from cache or from vessels by UUID table if
+     * cached prior state is enabled, from vessels by UUID table otherwise.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @return vessel
+     */
+    private Optional<Vessel> findPriorState(final VesselOperation operation, final String uuid) {
+        return this.cachedPriorStateEnabled
+                ? this.findVessel(operation, uuid)
+                : this.readVessel(operation, uuid);
+    }
+
+    /**
+     * Get prior state of vessel with input UUID, before it is written, asynchronously.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @return future vessel
+     * @see #findPriorState(VesselOperation, String)
+     */
+    private CompletableFuture<Optional<Vessel>> findPriorStateAsync(final VesselOperation operation, final String uuid) {
+        return this.cachedPriorStateEnabled
+                ? this.findVesselAsync(operation, uuid)
+                : this.readVesselAsync(operation, uuid);
+    }
+
+    /**
+     * Read vessel from selected UUID from vessels by UUID table, and cache it.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @return vessel
+     */
+    private Optional<Vessel> readVessel(final VesselOperation operation, final String uuid) {
+        final long stamp = this.vesselCache.getStamp(uuid);
+        final Statement query = this.readQuery(VesselQueryType.FIND, UUID.fromString(uuid));
+        return this.execute(operation, query, result -> this.mapVessel(result, uuid, stamp));
+    }
+
+    /**
+     * Read vessel from selected UUID from vessels by UUID table, and cache it, asynchronously.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @return future vessel
+     */
+    private CompletableFuture<Optional<Vessel>> readVesselAsync(final VesselOperation operation, final String uuid) {
+        final long stamp = this.vesselCache.getStamp(uuid);
+        final Statement query = this.readQuery(VesselQueryType.FIND, UUID.fromString(uuid));
+        return this.executeAsync(operation, query, result -> this.mapVessel(result, uuid, stamp));
+    }
+
+    /**
+     * Map vessels by UUID table row into domain data model, and cache vessel unless it has been written since it was
+     * read.
+     *
+     * @param result result set
+     * @param uuid   UUID
+     * @param stamp  stamp of vessel in cache, taken before it was read
+     * @return vessel
+     */
+    private Optional<Vessel> mapVessel(final ResultSet result, final String uuid, final long stamp) {
+        final Row row = result.one();
+        LOGGER.trace("Found {}match for vessel ID={}", row == null ? "no " : "", uuid);
+        final Optional<Vessel> res = Optional.ofNullable(row)
+                .map(VesselRowCodec.of(result.getColumnDefinitions())::decode);
+        res.ifPresent(vessel -> this.vesselCache.putIfUnchanged(vessel, stamp));
+        return res;
     }
 
     /**
@@ -100,31 +563,47 @@ public final class VesselService {
      * @return list of visible vessels that match criterion
      */
     public List<Vessel> findByNameFragment(final CenterReference center, final String nameFragment) {
+        return CompletableFutures.getUninterruptibly(this.findByNameFragmentAsync(center, nameFragment));
+    }
+
+    /**
+     * Find vessels by name fragment (among vessels that are visible to site), asynchronously.
+     *
+     * @param center       center
+     * @param nameFragment name fragment
+     * @return future list of visible vessels that match criterion
+     * @see #findByNameFragment(CenterReference, String)
+     */
+    public CompletableFuture<List<Vessel>> findByNameFragmentAsync(final CenterReference center, final String nameFragment) {
         LOGGER.trace("Find vessel by name fragment '{}'", nameFragment);
-        final List<VesselsTable> res = new ArrayList<>();
-        res.addAll(findByNameFragment(VesselsTable.getGlobalVisibilityKey(), nameFragment));
-        res.addAll(findByNameFragment(center.getUuid(), nameFragment));
-        LOGGER.trace("Found {}match(es) for name fragment={}", res.size(), nameFragment);
-        return res.stream()
-                .map(VesselsTable::toDomainModel)
-                .collect(Collectors.toList());
+        return this.metrics.trackAsync(VesselOperation.FIND_BY_NAME_FRAGMENT,
+                () -> this.findByNameFragmentInPartitions(center, nameFragment), List::size);
     }
 
     /**
-     * Get rows that match input visibility and name fragment.
+     * Find vessels by name fragment (among vessels that are visible to site), from in-memory index if it is enabled,
+     * or from vessels table.
      *
-     * @param visibility   visibility
+     * @param center       center
      * @param nameFragment name fragment
-     * @return vessels table rows
+     * @return future list of visible vessels that match criterion
      */
-    private List<VesselsTable> findByNameFragment(final String visibility, final String nameFragment) {
-        final Mapper<VesselsTable> mapper = this.mappingManager.mapper(VesselsTable.class);
-        final Select.Where query = select().all()
-                .from("vessels")
-                .where(eq("visibility", visibility))
-                .and(like("name", String.format("%%%s%%", nameFragment)));
-        final ResultSet result = this.session.execute(query);
-        return mapper.map(result).all();
+    private CompletableFuture<List<Vessel>> findByNameFragmentInPartitions(final CenterReference center, final String nameFragment) {
+        final NameFragmentIndex index = this.nameFragmentIndex;
+        if (index != null) {
+            final List<Vessel> res = this.distinct(this.visibilityKeys.of(center).stream()
+                    .flatMap(visibility -> index.find(visibility, nameFragment).stream())
+                    .collect(Collectors.toList()), Vessel::getUuid);
+            LOGGER.trace("Found {}match(es) in index for name fragment={}", res.size(), nameFragment);
+            return CompletableFuture.completedFuture(res);
+        }
+        final String pattern = String.format("%%%s%%", nameFragment);
+        return this.findInVisibilityPartitions(center, visibility -> this.findInPartition(VesselOperation.FIND_BY_NAME_FRAGMENT,
+                this.readQuery(VesselQueryType.FIND_BY_NAME_FRAGMENT, visibility, pattern)))
+                .thenApply(res -> {
+                    LOGGER.trace("Found {}match(es) for name fragment={}", res.size(), nameFragment);
+                    return res;
+                });
     }
 
     /**
@@ -135,31 +614,232 @@ public final class VesselService {
      * @return list of visible vessels that match criterion
      */
     public List<Vessel> findByCategory(final CenterReference center, final VesselCategoryReference category) {
+        return CompletableFutures.getUninterruptibly(this.findByCategoryAsync(center, category));
+    }
+
+    /**
+     * Find vessels by category (among vessels that are visible to site), asynchronously.
+     *
+     * @param center   center
+     * @param category vessel category
+     * @return future list of visible vessels that match criterion
+     * @see #findByCategory(CenterReference, VesselCategoryReference)
+     */
+    public CompletableFuture<List<Vessel>> findByCategoryAsync(final CenterReference center, final VesselCategoryReference category) {
         LOGGER.trace("Find vessel by category '{}'", category);
-        final List<VesselsTable> res = new ArrayList<>();
-        res.addAll(findByCategory(VesselsTable.getGlobalVisibilityKey(), category));
-        res.addAll(findByCategory(center.getUuid(), category));
-        LOGGER.trace("Found {}match(es) for category={}", res.size(), category);
-        return res.stream()
-                .map(VesselsTable::toDomainModel)
+        return this.metrics.trackAsync(VesselOperation.FIND_BY_CATEGORY, () -> this.findInVisibilityPartitions(center,
+                visibility -> this.findInPartition(VesselOperation.FIND_BY_CATEGORY,
+                        this.readQuery(VesselQueryType.FIND_BY_CATEGORY, visibility, category.getUuid())))
+                .thenApply(res -> {
+                    LOGGER.trace("Found {}match(es) for category={}", res.size(), category);
+                    return res;
+                }), List::size);
+    }
+
+    /**
+     * Get summaries of all vessels that are visible to site.
+     * <p>
+     * Only "uuid", "name" and "category" columns are read, so that the "vessel" UDT is neither transferred nor decoded.
+     * Partitions that are cached by {@link #findAll(CenterReference)} are summarized from cache.
+     *
+     * @param center center
+     * @return summaries of all visible vessels
+     */
+    public List<VesselSummary> findAllSummaries(final CenterReference center) {
+        return CompletableFutures.getUninterruptibly(this.findAllSummariesAsync(center));
+    }
+
+    /**
+     * Get summaries of all vessels that are visible to site, asynchronously.
+     *
+     * @param center center
+     * @return future summaries of all visible vessels
+     * @see #findAllSummaries(CenterReference)
+     */
+    public CompletableFuture<List<VesselSummary>> findAllSummariesAsync(final CenterReference center) {
+        LOGGER.trace("Find vessel summaries by site ID: {}", center);
+        return this.metrics.trackAsync(VesselOperation.FIND_ALL_SUMMARIES, () -> this.findInVisibilityPartitions(center,
+                visibility -> {
+                    final Optional<List<Vessel>> cached = this.visibilityCache.get(visibility);
+                    if (cached.isPresent()) {
+                        LOGGER.trace("Found cached partition for visibility={}", visibility);
+                        return CompletableFuture.completedFuture(summarize(cached.get()));
+                    }
+                    return this.findSummariesInPartition(VesselOperation.FIND_ALL_SUMMARIES,
+                            this.readQuery(VesselQueryType.FIND_ALL_SUMMARIES, visibility));
+                }, VesselSummary::getUuid)
+                .thenApply(res -> {
+                    LOGGER.trace("Found {} summaries for center={}", res.size(), center);
+                    return res;
+                }), List::size);
+    }
+
+    /**
+     * Find summaries of vessels by name fragment (among vessels that are visible to site).
+     * <p>
+     * Only "uuid", "name" and "category" columns are read, unless the in-memory index of vessel names is enabled.
+     *
+     * @param center       center
+     * @param nameFragment name fragment
+     * @return summaries of visible vessels that match criterion
+     */
+    public List<VesselSummary> findSummariesByNameFragment(final CenterReference center, final String nameFragment) {
+        return CompletableFutures.getUninterruptibly(this.findSummariesByNameFragmentAsync(center, nameFragment));
+    }
+
+    /**
+     * Find summaries of vessels by name fragment (among vessels that are visible to site), asynchronously.
+     *
+     * @param center       center
+     * @param nameFragment name fragment
+     * @return future summaries of visible vessels that match criterion
+     * @see #findSummariesByNameFragment(CenterReference, String)
+     */
+    public CompletableFuture<List<VesselSummary>> findSummariesByNameFragmentAsync(final CenterReference center,
+                                                                                    final String nameFragment) {
+        LOGGER.trace("Find vessel summaries by name fragment '{}'", nameFragment);
+        return this.metrics.trackAsync(VesselOperation.FIND_SUMMARIES_BY_NAME_FRAGMENT, () -> {
+            if (this.nameFragmentIndex != null) {
+                return this.findByNameFragmentInPartitions(center, nameFragment)
+                        .thenApply(VesselService::summarize);
+            }
+            final String pattern = String.format("%%%s%%", nameFragment);
+            return this.findInVisibilityPartitions(center,
+                    visibility -> this.findSummariesInPartition(VesselOperation.FIND_SUMMARIES_BY_NAME_FRAGMENT,
+                            this.readQuery(VesselQueryType.FIND_SUMMARIES_BY_NAME_FRAGMENT, visibility, pattern)),
+                    VesselSummary::getUuid)
+                    .thenApply(res -> {
+                        LOGGER.trace("Found {} summaries for name fragment={}", res.size(), nameFragment);
+                        return res;
+                    });
+        }, List::size);
+    }
+
+    /**
+     * Find summaries of vessels by category (among vessels that are visible to site).
+     * <p>
+     * Only "uuid", "name" and "category" columns are read.
+     *
+     * @param center   center
+     * @param category vessel category
+     * @return summaries of visible vessels that match criterion
+     */
+    public List<VesselSummary> findSummariesByCategory(final CenterReference center, final VesselCategoryReference category) {
+        return CompletableFutures.getUninterruptibly(this.findSummariesByCategoryAsync(center, category));
+    }
+
+    /**
+     * Find summaries of vessels by category (among vessels that are visible to site), asynchronously.
+     *
+     * @param center   center
+     * @param category vessel category
+     * @return future summaries of visible vessels that match criterion
+     * @see #findSummariesByCategory(CenterReference, VesselCategoryReference)
+     */
+    public CompletableFuture<List<VesselSummary>> findSummariesByCategoryAsync(final CenterReference center,
+                                                                                final VesselCategoryReference category) {
+        LOGGER.trace("Find vessel summaries by category '{}'", category);
+        return this.metrics.trackAsync(VesselOperation.FIND_SUMMARIES_BY_CATEGORY, () -> this.findInVisibilityPartitions(center,
+                visibility -> this.findSummariesInPartition(VesselOperation.FIND_SUMMARIES_BY_CATEGORY,
+                        this.readQuery(VesselQueryType.FIND_SUMMARIES_BY_CATEGORY, visibility, category.getUuid())),
+                VesselSummary::getUuid)
+                .thenApply(res -> {
+                    LOGGER.trace("Found {} summaries for category={}", res.size(), category);
+                    return res;
+                }), List::size);
+    }
+
+    /**
+     * Query all partitions that are visible to site concurrently, and merge results.
+     *
+     * @param center center
+     * @param search search in the partition with input visibility key
+     * @return future list of vessels
+     * @see #findInVisibilityPartitions(CenterReference, Function, Function)
+     */
+    private CompletableFuture<List<Vessel>> findInVisibilityPartitions(final CenterReference center,
+                                                                       final Function<String, CompletableFuture<List<Vessel>>> search) {
+        return this.findInVisibilityPartitions(center, search, Vessel::getUuid);
+    }
+
+    /**
+     * Query all partitions that are visible to site concurrently, and merge results.
+     * <p>
+     * Each partition is queried separately (rather than with a single IN query) so that the query is routed to a
+     * replica of the partition, and mapped as soon as its result set is available.
+     *
+     * @param center center
+     * @param search search in the partition with input visibility key
+     * @param uuid   UUID of a result
+     * @param <T>    result type
+     * @return future list of results
+     */
+    private <T> CompletableFuture<List<T>> findInVisibilityPartitions(final CenterReference center,
+                                                                      final Function<String, CompletableFuture<List<T>>> search,
+                                                                      final Function<T, String> uuid) {
+        final List<CompletableFuture<List<T>>> partitions = this.visibilityKeys.of(center).stream()
+                .map(search)
                 .collect(Collectors.toList());
+        return CompletableFuture.allOf(partitions.toArray(new CompletableFuture<?>[partitions.size()]))
+                .thenApply(done -> this.distinct(partitions.stream()
+                        .flatMap(partition -> partition.join().stream())
+                        .collect(Collectors.toList()), uuid));
+    }
+
+    /**
+     * Remove duplicates from input results, which are read from several partitions: while vessels are resharded, a
+     * vessel may be read from both layouts.
+     *
+     * @param results results
+     * @param uuid    UUID of a result
+     * @param <T>     result type
+     * @return results, with a single occurrence of each vessel
+     */
+    private <T> List<T> distinct(final List<T> results, final Function<T, String> uuid) {
+        if (!this.visibilityKeys.isResharding()) {
+            return results;
+        }
+        final Map<String, T> res = new LinkedHashMap<>();
+        results.forEach(result -> res.putIfAbsent(uuid.apply(result), result));
+        return new ArrayList<>(res.values());
     }
 
     /**
-     * Get rows that match input visibility and category.
+     * Execute input query, which selects rows of a vessels table partition.
      *
-     * @param visibility visibility
-     * @param category   vessel category
-     * @return vessels table rows
+     * @param operation operation that Cassandra request is recorded for
+     * @param query     query
+     * @return future list of vessels
      */
-    private List<VesselsTable> findByCategory(final String visibility, final VesselCategoryReference category) {
-        final Mapper<VesselsTable> mapper = this.mappingManager.mapper(VesselsTable.class);
-        final Select.Where query = select().all()
-                .from("vessels_by_category")
-                .where(eq("visibility", visibility))
-                .and(eq("category", category.getUuid()));
-        final ResultSet result = this.session.execute(query);
-        return mapper.map(result).all();
+    private CompletableFuture<List<Vessel>> findInPartition(final VesselOperation operation, final Statement query) {
+        return this.executeAsync(operation, query, VesselService::mapVessels);
+    }
+
+    /**
+     * Execute input query, which selects summary columns of rows of a vessels table partition.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param query     query
+     * @return future list of vessel summaries
+     */
+    private CompletableFuture<List<VesselSummary>> findSummariesInPartition(final VesselOperation operation,
+                                                                            final Statement query) {
+        return this.executeAsync(operation, query, VesselService::mapSummaries);
+    }
+
+    /**
+     * Bind input query, which reads vessels.
+     * <p>
+     * Reads are marked as idempotent, so that they may be retried or speculatively executed on other replicas, unlike
+     * writes.
+     *
+     * @param query  query type
+     * @param values values of bind markers
+     * @return query
+     */
+    private Statement readQuery(final VesselQueryType query, final Object... values) {
+        return this.statements.bind(query, values)
+                .setIdempotent(true);
     }
 
     /**
@@ -169,19 +849,100 @@ public final class VesselService {
      * @return list of vessels for which last departure port matches input port and departure time is in the last hours
      */
     public List<Vessel> findByDeparturePort(final PortReference departurePort) {
+        return CompletableFutures.getUninterruptibly(this.findByDeparturePortAsync(departurePort));
+    }
+
+    /**
+     * Get list of vessels that departed recently from a selected port, asynchronously.
+     * <p>
+     * Departure buckets that cover the recent range are queried concurrently. As each bucket is sorted by departure
+     * time and covers a distinct time range, results are merged in time order by concatenation, from the most recent
+     * bucket.
+     *
+     * @param departurePort departure port
+     * @return future list of vessels for which last departure port matches input port and departure time is in the last hours
+     * @see #findByDeparturePort(PortReference)
+     */
+    public CompletableFuture<List<Vessel>> findByDeparturePortAsync(final PortReference departurePort) {
         LOGGER.trace("Find vessel by last departure port '{}'", departurePort);
-        final Mapper<VesselsByDeparturePortTable> mapper = this.mappingManager.mapper(VesselsByDeparturePortTable.class);
-        final Instant since = Instant.now().minus(DEPARTURE_RANGE);
-        final Select.Where query = select().all()
-                .from("vessels_by_departure_port")
-                .where(eq("last_departure_port", departurePort.getUuid()))
-                .and(gt("last_departure_time", Date.from(since)));
-        final ResultSet result = this.session.execute(query);
-        final List<VesselsByDeparturePortTable> res = mapper.map(result).all();
-        LOGGER.trace("Found {}match(es) for last departure port={}", res.size(), departurePort);
-        return res.stream()
-                .map(VesselsByDeparturePortTable::toDomainModel)
+        return this.metrics.trackAsync(VesselOperation.FIND_BY_DEPARTURE_PORT,
+                () -> this.findInDepartureBuckets(departurePort), List::size);
+    }
+
+    /**
+     * Query departure buckets that cover the recent range concurrently, and merge results.
+     *
+     * @param departurePort departure port
+     * @return future list of vessels for which last departure port matches input port and departure time is in the last hours
+     */
+    private CompletableFuture<List<Vessel>> findInDepartureBuckets(final PortReference departurePort) {
+        final Instant now = Instant.now();
+        final Date since = Date.from(now.minus(DEPARTURE_RANGE));
+        final List<CompletableFuture<List<Vessel>>> buckets = VesselsByDeparturePortTable
+                .getDepartureBuckets(since.toInstant(), now).stream()
+                .map(bucket -> this.executeAsync(VesselOperation.FIND_BY_DEPARTURE_PORT,
+                        this.readQuery(VesselQueryType.FIND_BY_DEPARTURE_PORT, departurePort.getUuid(), bucket, since),
+                        VesselService::mapVessels))
                 .collect(Collectors.toList());
+        return CompletableFuture.allOf(buckets.toArray(new CompletableFuture<?>[buckets.size()]))
+                .thenApply(done -> {
+                    final List<Vessel> res = buckets.stream()
+                            .flatMap(bucket -> bucket.join().stream())
+                            .collect(Collectors.toList());
+                    LOGGER.trace("Found {}match(es) for last departure port={}", res.size(), departurePort);
+                    return res;
+                });
+    }
+
+    /**
+     * Map rows of a vessel table into domain data model.
+     *
+     * @param result result set, which is fully fetched
+     * @return vessels
+     */
+    private static List<Vessel> mapVessels(final ResultSet result) {
+        final VesselRowCodec codec = VesselRowCodec.of(result.getColumnDefinitions());
+        final List<Vessel> res = new ArrayList<>(result.getAvailableWithoutFetching());
+        for (final Row row : result) {
+            final Vessel vessel = codec.decode(row);
+            if (vessel != null) {
+                res.add(vessel);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Map rows of "uuid", "name" and "category" columns into vessel summaries.
+     *
+     * @param result result set
+     * @return vessel summaries (rows without name, which hold no vessel, are skipped)
+     */
+    private static List<VesselSummary> mapSummaries(final ResultSet result) {
+        final ColumnDefinitions columns = result.getColumnDefinitions();
+        final int uuidIndex = columns.getIndexOf("uuid");
+        final int nameIndex = columns.getIndexOf("name");
+        final int categoryIndex = columns.getIndexOf("category");
+        final List<VesselSummary> res = new ArrayList<>(result.getAvailableWithoutFetching());
+        for (final Row row : result) {
+            if (!row.isNull(nameIndex)) {
+                res.add(VesselSummary.of(row.getUUID(uuidIndex).toString(), row.getString(nameIndex),
+                        VesselCategoryReference.of(row.getString(categoryIndex))));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Summarize input vessels.
+     *
+     * @param vessels vessels
+     * @return vessel summaries
+     */
+    private static List<VesselSummary> summarize(final List<Vessel> vessels) {
+        final List<VesselSummary> res = new ArrayList<>(vessels.size());
+        vessels.forEach(vessel -> res.add(VesselSummary.from(vessel)));
+        return res;
     }
 
     /**
@@ -192,75 +953,779 @@ public final class VesselService {
     public void add(final Vessel vessel) {
         LOGGER.trace("Create {}", vessel);
         final UUID uuid = UUID.randomUUID();
-        save(uuid, vessel);
+        this.metrics.track(VesselOperation.ADD, () -> this.save(VesselOperation.ADD, uuid, vessel));
         LOGGER.trace("Creation of vessel {} completed", vessel);
     }
 
     /**
-     * Update vessel with input data.
+     * Create new vessel with input data, asynchronously.
      *
      * @param vessel vessel
+     * @return future completed once vessel is created
+     * @see #add(Vessel)
      */
+    public CompletableFuture<Void> addAsync(final Vessel vessel) {
+        LOGGER.trace("Create asynchronously {}", vessel);
+        final UUID uuid = UUID.randomUUID();
+        return this.metrics.trackAsync(VesselOperation.ADD, () -> this.saveAsync(VesselOperation.ADD, uuid, vessel))
+                .thenRun(() -> LOGGER.trace("Creation of vessel {} completed", vessel));
+    }
 
+    /**
+     * Update vessel with input data.
+     * <p>
+     * Vessel is compared with its previous state (cached, or read from vessels by UUID table: see
+     * {@link #setCachedPriorStateEnabled(boolean)}): nothing is written if it is unchanged, and rows that are not relevant anymore (previous visibility or departure) are deleted.
+     *
+     * @param vessel vessel
+     */
     public void update(final Vessel vessel) {
         LOGGER.trace("Update {}", vessel);
-        final UUID uuid = UUID.fromString(vessel.getUuid());
-        save(uuid, vessel);
+        this.metrics.track(VesselOperation.UPDATE, () -> {
+            final Optional<Vessel> previous = this.findPriorState(VesselOperation.UPDATE, vessel.getUuid());
+            this.saveChanges(VesselOperation.UPDATE, UUID.fromString(vessel.getUuid()), previous, vessel);
+        });
         LOGGER.trace("Update of vessel {} completed", vessel);
     }
 
+    /**
+     * Update vessel with input data, asynchronously.
+     *
+     * @param vessel vessel
+     * @return future completed once vessel is updated
+     * @see #update(Vessel)
+     */
+    public CompletableFuture<Void> updateAsync(final Vessel vessel) {
+        LOGGER.trace("Update asynchronously {}", vessel);
+        return this.metrics.trackAsync(VesselOperation.UPDATE, () -> this.findPriorStateAsync(VesselOperation.UPDATE, vessel.getUuid())
+                .thenCompose(previous -> this.saveChangesAsync(VesselOperation.UPDATE,
+                        UUID.fromString(vessel.getUuid()), previous, vessel)))
+                .thenRun(() -> LOGGER.trace("Update of vessel {} completed", vessel));
+    }
+
+    /**
+     * Record departure of vessel with input UUID.
+     * <p>
+     * Unlike {@link #update(Vessel)}, the frozen vessel UDT is not rewritten into vessels and vessels by UUID tables:
+     * only last departure columns are updated, and the row of vessels by departure port table is replaced.
+     *
+     * @param uuid          UUID
+     * @param departurePort departure port
+     * @param departureTime departure time
+     */
+    public void recordDeparture(final String uuid, final PortReference departurePort, final Instant departureTime) {
+        LOGGER.trace("Record departure of vessel {} from {} at {}", uuid, departurePort, departureTime);
+        final VesselDeparture departure = VesselDeparture.of(departurePort, departureTime);
+        this.metrics.track(VesselOperation.RECORD_DEPARTURE, () -> {
+            final Optional<Vessel> previous = this.findPriorState(VesselOperation.RECORD_DEPARTURE, uuid);
+            if (previous.isPresent()) {
+                this.saveChanges(VesselOperation.RECORD_DEPARTURE, UUID.fromString(uuid), previous,
+                        withDeparture(previous.get(), departure));
+                LOGGER.trace("Departure of vessel {} recorded", uuid);
+            } else {
+                LOGGER.warn("No vessel found with ID {}", uuid);
+            }
+        });
+    }
+
+    /**
+     * Record departure of vessel with input UUID, asynchronously.
+     *
+     * @param uuid          UUID
+     * @param departurePort departure port
+     * @param departureTime departure time
+     * @return future completed once departure is recorded
+     * @see #recordDeparture(String, PortReference, Instant)
+     */
+    public CompletableFuture<Void> recordDepartureAsync(final String uuid, final PortReference departurePort,
+                                                        final Instant departureTime) {
+        LOGGER.trace("Record asynchronously departure of vessel {} from {} at {}", uuid, departurePort, departureTime);
+        final VesselDeparture departure = VesselDeparture.of(departurePort, departureTime);
+        return this.metrics.trackAsync(VesselOperation.RECORD_DEPARTURE,
+                () -> this.findPriorStateAsync(VesselOperation.RECORD_DEPARTURE, uuid)
+                        .thenCompose(previous -> {
+                            if (previous.isPresent()) {
+                                return this.saveChangesAsync(VesselOperation.RECORD_DEPARTURE, UUID.fromString(uuid),
+                                        previous, withDeparture(previous.get(), departure))
+                                        .thenRun(() -> LOGGER.trace("Departure of vessel {} recorded", uuid));
+                            } else {
+                                LOGGER.warn("No vessel found with ID {}", uuid);
+                                return CompletableFuture.completedFuture(null);
+                            }
+                        }));
+    }
+
+    /**
+     * Create new vessels with input data.
+     * <p>
+     * Unlike {@link #add(Vessel)}, tables of a vessel are not written atomically: vessels that are reported as failed
+     * may have been partially created.
+     *
+     * @param vessels vessels
+     * @return failures, by vessel (empty if all vessels have been created)
+     */
+    public Map<Vessel, Throwable> addAll(final Collection<Vessel> vessels) {
+        LOGGER.trace("Create {} vessel(s)", vessels.size());
+        final Map<UUID, Vessel> vesselsByUuid = new LinkedHashMap<>();
+        for (final Vessel vessel : vessels) {
+            vesselsByUuid.put(UUID.randomUUID(), vessel);
+        }
+        final Map<Vessel, Throwable> failures = this.saveAll(vesselsByUuid);
+        LOGGER.trace("Creation of {} vessel(s) completed with {} failure(s)", vessels.size(), failures.size());
+        return failures;
+    }
+
+    /**
+     * Update vessels with input data.
+     * <p>
+     * As with {@link #update(Vessel)}, vessels are compared with their previous state (read concurrently, with at most
+     * as many reads in flight as the maximum number of requests in flight per bulk operation): unchanged vessels are
+     * not written, and rows whose primary key changed (previous visibility, category or departure) are deleted.
+     * Unlike {@link #update(Vessel)}, tables of a vessel are not written atomically: vessels that are reported as
+     * failed may have been partially updated.
+     *
+     * @param vessels vessels
+     * @return failures, by vessel (empty if all vessels have been updated)
+     */
+    public Map<Vessel, Throwable> updateAll(final Collection<Vessel> vessels) {
+        LOGGER.trace("Update {} vessel(s)", vessels.size());
+        final Map<UUID, Vessel> vesselsByUuid = new LinkedHashMap<>();
+        for (final Vessel vessel : vessels) {
+            vesselsByUuid.put(UUID.fromString(vessel.getUuid()), vessel);
+        }
+        final Map<Vessel, Throwable> failures = new HashMap<>();
+        final Map<UUID, Optional<Vessel>> previous = this.findPriorStates(vesselsByUuid, failures);
+        final Map<UUID, Vessel> changed = new LinkedHashMap<>();
+        previous.forEach((uuid, former) -> {
+            final Vessel vessel = vesselsByUuid.get(uuid);
+            if (former.filter(vessel::equals).isPresent()) {
+                LOGGER.trace("Vessel {} is unchanged", uuid);
+            } else {
+                changed.put(uuid, vessel);
+            }
+        });
+        changed.keySet().forEach(uuid -> this.vesselCache.invalidate(uuid.toString()));
+        final Map<Vessel, Throwable> writeFailures = new VesselBulkWriter(this.session, this.statements,
+                this.maxBulkRequestsInFlight).write(changed,
+                (uuid, vessel) -> this.updateStatements(uuid, previous.get(uuid), vessel));
+        changed.forEach((uuid, vessel) -> this.onUpdated(uuid, previous.get(uuid), vessel, writeFailures.get(vessel)));
+        failures.putAll(writeFailures);
+        LOGGER.trace("Update of {} vessel(s) completed with {} failure(s)", vessels.size(), failures.size());
+        return failures;
+    }
+
+    /**
+     * Get prior states of input vessels, before they are written, concurrently.
+     *
+     * @param vessels  vessels, by UUID
+     * @param failures failures, by vessel, which failed reads are added to
+     * @return prior states, by UUID (in the order of input vessels, for vessels whose prior state has been read)
+     * @see #findPriorStateAsync(VesselOperation, String)
+     */
+    private Map<UUID, Optional<Vessel>> findPriorStates(final Map<UUID, Vessel> vessels,
+                                                        final Map<Vessel, Throwable> failures) {
+        final Semaphore inFlight = new Semaphore(this.maxBulkRequestsInFlight);
+        final Map<UUID, Optional<Vessel>> states = new ConcurrentHashMap<>();
+        final Map<Vessel, Throwable> readFailures = new ConcurrentHashMap<>();
+        final List<CompletableFuture<Optional<Vessel>>> requests = new ArrayList<>(vessels.size());
+        for (final Map.Entry<UUID, Vessel> vessel : vessels.entrySet()) {
+            inFlight.acquireUninterruptibly();
+            final CompletableFuture<Optional<Vessel>> request;
+            try {
+                request = this.findPriorStateAsync(VesselOperation.UPDATE, vessel.getKey().toString());
+            } catch (final RuntimeException e) {
+                inFlight.release();
+                readFailures.put(vessel.getValue(), e);
+                continue;
+            }
+            requests.add(request.whenComplete((state, failure) -> {
+                inFlight.release();
+                if (failure == null) {
+                    states.put(vessel.getKey(), state);
+                } else {
+                    readFailures.put(vessel.getValue(),
+                            failure instanceof CompletionException ? failure.getCause() : failure);
+                }
+            }));
+        }
+        for (final CompletableFuture<Optional<Vessel>> request : requests) {
+            request.handle((state, failure) -> null).join();
+        }
+        failures.putAll(readFailures);
+        final Map<UUID, Optional<Vessel>> res = new LinkedHashMap<>();
+        for (final UUID uuid : vessels.keySet()) {
+            if (states.containsKey(uuid)) {
+                res.put(uuid, states.get(uuid));
+            }
+        }
+        return res;
+    }
+
     /**
      * Save vessel with input information into vessel tables.
      *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @param vessel    vessel
+     */
+    private void save(final VesselOperation operation, final UUID uuid, final Vessel vessel) {
+        this.vesselCache.invalidate(uuid.toString());
+        try {
+            this.execute(operation, this.saveQuery(uuid, vessel), result -> null);
+        } catch (final RuntimeException e) {
+            this.onSaved(uuid, vessel, e);
+            throw e;
+        }
+        this.onSaved(uuid, vessel, null);
+    }
+
+    /**
+     * Save vessel with input information into vessel tables, asynchronously.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @param vessel    vessel
+     * @return future completed once vessel is saved
+     */
+    private CompletableFuture<Void> saveAsync(final VesselOperation operation, final UUID uuid, final Vessel vessel) {
+        this.vesselCache.invalidate(uuid.toString());
+        return this.executeAsync(operation, this.saveQuery(uuid, vessel), result -> (Void) null)
+                .whenComplete((result, failure) -> this.onSaved(uuid, vessel, failure));
+    }
+
+    /**
+     * Save changes of vessel with input information into vessel tables.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @param previous  previous state of vessel, if any
+     * @param vessel    vessel
+     */
+    private void saveChanges(final VesselOperation operation, final UUID uuid, final Optional<Vessel> previous,
+                             final Vessel vessel) {
+        if (previous.filter(vessel::equals).isPresent()) {
+            LOGGER.trace("Vessel {} is unchanged", uuid);
+            return;
+        }
+        this.vesselCache.invalidate(uuid.toString());
+        try {
+            this.execute(operation, this.updateQuery(uuid, previous, vessel), result -> null);
+        } catch (final RuntimeException e) {
+            this.onUpdated(uuid, previous, vessel, e);
+            throw e;
+        }
+        this.onUpdated(uuid, previous, vessel, null);
+    }
+
+    /**
+     * Save changes of vessel with input information into vessel tables, asynchronously.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @param previous  previous state of vessel, if any
+     * @param vessel    vessel
+     * @return future completed once changes are saved
+     */
+    private CompletableFuture<Void> saveChangesAsync(final VesselOperation operation, final UUID uuid,
+                                                     final Optional<Vessel> previous, final Vessel vessel) {
+        if (previous.filter(vessel::equals).isPresent()) {
+            LOGGER.trace("Vessel {} is unchanged", uuid);
+            return CompletableFuture.completedFuture(null);
+        }
+        this.vesselCache.invalidate(uuid.toString());
+        return this.executeAsync(operation, this.updateQuery(uuid, previous, vessel), result -> (Void) null)
+                .whenComplete((result, failure) -> this.onUpdated(uuid, previous, vessel, failure));
+    }
+
+    /**
+     * Save vessels with input information into vessel tables, in bulk.
+     *
+     * @param vessels vessels, by UUID
+     * @return failures, by vessel
+     */
+    private Map<Vessel, Throwable> saveAll(final Map<UUID, Vessel> vessels) {
+        vessels.keySet().forEach(uuid -> this.vesselCache.invalidate(uuid.toString()));
+        final Map<Vessel, Throwable> failures = new VesselBulkWriter(this.session, this.statements,
+                this.maxBulkRequestsInFlight).save(vessels);
+        vessels.forEach((uuid, vessel) -> this.onSaved(uuid, vessel, failures.get(vessel)));
+        return failures;
+    }
+
+    /**
+     * Get query that saves vessel with input information into vessel tables.
+     *
      * @param uuid   UUID
      * @param vessel vessel
-     * @param <T>    vessel table type
+     * @return query
      */
-    private <T> void save(final UUID uuid, final Vessel vessel) {
+    private Statement saveQuery(final UUID uuid, final Vessel vessel) {
         final BatchStatement batch = new BatchStatement();
         for (final VesselTableType table : VesselTableType.values()) {
             if (table.isRelevant(vessel)) {
-                final T entity = table.getEntity(uuid, vessel);
-                final Mapper<T> mapper = this.mappingManager.mapper(table.<T>getTableClass());
-                batch.add(mapper.saveQuery(entity));
+                batch.add(this.statements.bindSave(table, uuid, vessel));
             }
         }
-        this.session.execute(batch);
+        return batch.setIdempotent(false);
+    }
+
+    /**
+     * Get query that saves vessel with input information into vessel tables, and deletes rows of its previous state
+     * whose primary key changed (including its rows in the former layout of visibility keys, while vessels are resharded).
+     * <p>
+     * Each row holds the whole vessel, so that all relevant rows are saved as soon as vessel changed. Last departure
+     * info is only cleared (with tombstones) from the rows that are overwritten in place and held some.
+     *
+     * @param uuid     UUID
+     * @param previous previous state of vessel, if any
+     * @param vessel   vessel
+     * @return query
+     */
+    private Statement updateQuery(final UUID uuid, final Optional<Vessel> previous, final Vessel vessel) {
+        if (previous.filter(former -> isDepartureChangeOnly(former, vessel)
+                && !this.visibilityKeys.formerOf(uuid, former).isPresent()).isPresent()) {
+            return this.departureQuery(uuid, previous.get(), vessel);
+        }
+        final BatchStatement batch = new BatchStatement();
+        this.updateStatements(uuid, previous, vessel).forEach(batch::add);
+        return batch.setIdempotent(false);
+    }
+
+    /**
+     * Bind statements that save vessel with input information into vessel tables, and delete rows of its previous
+     * state whose primary key changed (including its rows in the former layout of visibility keys, while vessels are
+     * resharded).
+     *
+     * @param uuid     UUID
+     * @param previous previous state of vessel, if any
+     * @param vessel   vessel
+     * @return statements
+     */
+    private List<BoundStatement> updateStatements(final UUID uuid, final Optional<Vessel> previous, final Vessel vessel) {
+        final List<BoundStatement> res = new ArrayList<>();
+        previous.ifPresent(former -> this.addFormerLayoutDeletes(res, uuid, former));
+        for (final VesselTableType table : VesselTableType.values()) {
+            previous.filter(table::isRelevant)
+                    .filter(former -> !table.isRelevant(vessel) || !table.hasSameKey(this.visibilityKeys, uuid, former, vessel))
+                    .ifPresent(former -> res.add(this.statements.bindDelete(table, uuid, former)));
+            if (table.isRelevant(vessel)) {
+                res.add(this.statements.bindSave(table, uuid, vessel, previous
+                        .filter(former -> former.getLastDeparture().isPresent())
+                        .filter(former -> table.isRelevant(former) && table.hasSameKey(this.visibilityKeys, uuid, former, vessel))
+                        .isPresent()));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Add to input statements the deletes of the rows of vessel with input information in the former layout of
+     * visibility keys, if vessels are being resharded and its visibility key changed.
+     *
+     * @param statements statements
+     * @param uuid       UUID
+     * @param vessel     vessel
+     */
+    private void addFormerLayoutDeletes(final List<BoundStatement> statements, final UUID uuid, final Vessel vessel) {
+        if (this.visibilityKeys.formerOf(uuid, vessel).isPresent()) {
+            for (final VesselTableType table : VesselTableType.values()) {
+                if (table.isKeyedByVisibility() && table.isRelevant(vessel)) {
+                    statements.add(this.statements.bindFormerDelete(table, uuid, vessel));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if input vessels only differ by last departure info, which is then set in the new state.
+     *
+     * @param previous previous state of vessel
+     * @param vessel   vessel
+     * @return is last departure info the only change
+     */
+    private static boolean isDepartureChangeOnly(final Vessel previous, final Vessel vessel) {
+        return vessel.getLastDeparture().isPresent()
+                && withDeparture(previous, vessel.getLastDeparture().get()).equals(vessel);
+    }
+
+    /**
+     * Get query that saves new last departure info of vessel with input information: last departure columns of
+     * vessels, vessels by UUID and vessels by category tables are updated, and the row of vessels by departure port table
+     * is replaced.
+     *
+     * @param uuid     UUID
+     * @param previous previous state of vessel
+     * @param vessel   vessel, with new last departure info
+     * @return query
+     */
+    private Statement departureQuery(final UUID uuid, final Vessel previous, final Vessel vessel) {
+        final VesselDeparture lastDeparture = vessel.getLastDeparture()
+                .orElseThrow(() -> new IllegalArgumentException("Last departure info is mandatory"));
+        final String port = lastDeparture.getDeparturePort().getUuid();
+        final Date time = Date.from(lastDeparture.getDepartureTime());
+        final BatchStatement batch = new BatchStatement()
+                .add(this.statements.bind(VesselQueryType.RECORD_DEPARTURE_IN_VESSELS_BY_UUID, port, time, uuid))
+                .add(this.statements.bind(VesselQueryType.RECORD_DEPARTURE_IN_VESSELS, port, time,
+                        this.visibilityKeys.of(uuid, vessel), uuid))
+                .add(this.statements.bind(VesselQueryType.RECORD_DEPARTURE_IN_VESSELS_BY_CATEGORY, port, time,
+                        this.visibilityKeys.of(uuid, vessel), vessel.getCategory().getUuid(), uuid));
+        if (previous.getLastDeparture().isPresent()) {
+            batch.add(this.statements.bindDelete(VesselTableType.VESSELS_BY_DEPARTURE_PORT, uuid, previous));
+        }
+        batch.add(this.statements.bindSave(VesselTableType.VESSELS_BY_DEPARTURE_PORT, uuid, vessel));
+        return batch.setIdempotent(false);
+    }
+
+    /**
+     * Copy input vessel with input last departure info.
+     *
+     * @param vessel        vessel
+     * @param lastDeparture last departure info
+     * @return vessel with input last departure info
+     */
+    private static Vessel withDeparture(final Vessel vessel, final VesselDeparture lastDeparture) {
+        return Vessel.fromUuid(vessel.getUuid())
+                .withName(vessel.getName())
+                .withCategory(vessel.getCategory())
+                .withVisibility(vessel.getVisibility())
+                .withCreationCenter(vessel.getCreationCenter())
+                .withDeparture(lastDeparture.getDeparturePort(), lastDeparture.getDepartureTime())
+                .build();
+    }
+
+    /**
+     * Copy input vessel with input UUID.
+     *
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @return vessel with input UUID
+     */
+    private static Vessel withUuid(final UUID uuid, final Vessel vessel) {
+        final Vessel.Builder builder = Vessel.fromUuid(uuid.toString())
+                .withName(vessel.getName())
+                .withCategory(vessel.getCategory())
+                .withVisibility(vessel.getVisibility())
+                .withCreationCenter(vessel.getCreationCenter());
+        vessel.getLastDeparture().ifPresent(lastDeparture ->
+                builder.withDeparture(lastDeparture.getDeparturePort(), lastDeparture.getDepartureTime()));
+        return builder.build();
+    }
+
+    /**
+     * Update in-process state (caches and name fragment index) once vessel with input information has been saved.
+     *
+     * @param uuid    UUID
+     * @param vessel  vessel
+     * @param failure failure, or null if vessel has been saved
+     */
+    private void onSaved(final UUID uuid, final Vessel vessel, final Throwable failure) {
+        final String visibility = this.visibilityKeys.of(uuid, vessel);
+        this.visibilityCache.invalidate(visibility);
+        this.onFormerLayoutWritten(uuid, vessel, failure);
+        if (failure == null) {
+            final Vessel saved = uuid.toString().equals(vessel.getUuid())
+                    ? vessel
+                    : withUuid(uuid, vessel);
+            this.vesselCache.put(saved);
+            if (this.nameFragmentIndex != null) {
+                this.nameFragmentIndex.put(visibility, saved);
+            }
+        } else {
+            this.vesselCache.invalidate(uuid.toString());
+        }
+    }
+
+    /**
+     * Update in-process state (caches and name fragment index) once changes of vessel with input information have
+     * been saved.
+     *
+     * @param uuid     UUID
+     * @param previous previous state of vessel, if any
+     * @param vessel   vessel
+     * @param failure  failure, or null if changes have been saved
+     */
+    private void onUpdated(final UUID uuid, final Optional<Vessel> previous, final Vessel vessel,
+                           final Throwable failure) {
+        previous.map(former -> this.visibilityKeys.of(uuid, former))
+                .filter(visibility -> !visibility.equals(this.visibilityKeys.of(uuid, vessel)))
+                .ifPresent(visibility -> {
+                    this.visibilityCache.invalidate(visibility);
+                    if (failure == null && this.nameFragmentIndex != null) {
+                        this.nameFragmentIndex.remove(visibility, uuid.toString());
+                    }
+                });
+        this.onSaved(uuid, vessel, failure);
     }
 
     /**
      * Delete vessel with input UUID.
+     * <p>
+     * Vessel is read first (see {@link #setCachedPriorStateEnabled(boolean)}), so that its rows can be located: use
+     * {@link #remove(Vessel)} when vessel is known.
      *
      * @param uuid UUID
      */
     public void remove(final String uuid) {
         LOGGER.trace("Delete {}", uuid);
-        final Optional<Vessel> vessel = this.find(uuid);
-        if (vessel.isPresent()) {
-            delete(UUID.fromString(uuid), vessel.get());
-            LOGGER.trace("Removal of vessel {} completed", uuid);
-        } else {
-            LOGGER.warn("No vessel found with ID {}", uuid);
+        this.metrics.track(VesselOperation.REMOVE, () -> {
+            final Optional<Vessel> vessel = this.findPriorState(VesselOperation.REMOVE, uuid);
+            if (vessel.isPresent()) {
+                this.delete(VesselOperation.REMOVE, UUID.fromString(uuid), vessel.get());
+                LOGGER.trace("Removal of vessel {} completed", uuid);
+            } else {
+                LOGGER.warn("No vessel found with ID {}", uuid);
+            }
+        });
+    }
+
+    /**
+     * Delete vessel with input UUID, asynchronously.
+     *
+     * @param uuid UUID
+     * @return future completed once vessel is removed
+     * @see #remove(String)
+     */
+    public CompletableFuture<Void> removeAsync(final String uuid) {
+        LOGGER.trace("Delete asynchronously {}", uuid);
+        return this.metrics.trackAsync(VesselOperation.REMOVE, () -> this.removeIfPresentAsync(uuid));
+    }
+
+    /**
+     * Delete input vessel, in a single round trip.
+     * <p>
+     * Unlike {@link #remove(String)}, vessel is not read first: rows are located from input vessel, which is expected
+     * to be the current state of the vessel (rows of another state, e.g. another visibility, are not deleted).
+     *
+     * @param vessel vessel
+     */
+    public void remove(final Vessel vessel) {
+        LOGGER.trace("Delete {}", vessel);
+        this.metrics.track(VesselOperation.REMOVE,
+                () -> this.delete(VesselOperation.REMOVE, UUID.fromString(vessel.getUuid()), vessel));
+        LOGGER.trace("Removal of vessel {} completed", vessel);
+    }
+
+    /**
+     * Delete input vessel, in a single round trip, asynchronously.
+     *
+     * @param vessel vessel
+     * @return future completed once vessel is removed
+     * @see #remove(Vessel)
+     */
+    public CompletableFuture<Void> removeAsync(final Vessel vessel) {
+        LOGGER.trace("Delete asynchronously {}", vessel);
+        return this.metrics.trackAsync(VesselOperation.REMOVE,
+                () -> this.deleteAsync(VesselOperation.REMOVE, UUID.fromString(vessel.getUuid()), vessel))
+                .thenRun(() -> LOGGER.trace("Removal of vessel {} completed", vessel));
+    }
+
+    /**
+     * Delete vessels with input UUIDs.
+     * <p>
+     * Vessels are read and deleted concurrently, with at most as many vessels in progress as the maximum number of
+     * requests in flight per bulk operation. Each vessel is deleted atomically, as with {@link #remove(String)}.
+     *
+     * @param uuids UUIDs
+     * @return failures, by UUID (empty if all vessels have been removed)
+     */
+    public Map<String, Throwable> removeAll(final Collection<String> uuids) {
+        LOGGER.trace("Delete {} vessel(s)", uuids.size());
+        final Semaphore inFlight = new Semaphore(this.maxBulkRequestsInFlight);
+        final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        final List<CompletableFuture<Void>> requests = new ArrayList<>(uuids.size());
+        for (final String uuid : uuids) {
+            inFlight.acquireUninterruptibly();
+            final CompletableFuture<Void> request;
+            try {
+                request = this.removeAsync(uuid);
+            } catch (final RuntimeException e) {
+                inFlight.release();
+                failures.put(uuid, e);
+                continue;
+            }
+            requests.add(request.whenComplete((result, failure) -> {
+                inFlight.release();
+                if (failure != null) {
+                    failures.put(uuid, failure instanceof CompletionException ? failure.getCause() : failure);
+                }
+            }));
         }
+        for (final CompletableFuture<Void> request : requests) {
+            request.handle((result, failure) -> null).join();
+        }
+        LOGGER.trace("Removal of {} vessel(s) completed with {} failure(s)", uuids.size(), failures.size());
+        return new HashMap<>(failures);
+    }
+
+    /**
+     * Delete vessel with input UUID if it exists, asynchronously.
+     *
+     * @param uuid UUID
+     * @return future completed once vessel is removed
+     */
+    private CompletableFuture<Void> removeIfPresentAsync(final String uuid) {
+        return this.findPriorStateAsync(VesselOperation.REMOVE, uuid)
+                .thenCompose(vessel -> {
+                    if (vessel.isPresent()) {
+                        return this.deleteAsync(VesselOperation.REMOVE, UUID.fromString(uuid), vessel.get())
+                                .thenRun(() -> LOGGER.trace("Removal of vessel {} completed", uuid));
+                    } else {
+                        LOGGER.warn("No vessel found with ID {}", uuid);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                });
     }
 
     /**
      * Delete vessel with input information from vessel tables.
      *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @param vessel    vessel
+     */
+    private void delete(final VesselOperation operation, final UUID uuid, final Vessel vessel) {
+        try {
+            this.execute(operation, this.deleteQuery(uuid, vessel), result -> null);
+        } catch (final RuntimeException e) {
+            this.onDeleted(uuid, vessel, e);
+            throw e;
+        }
+        this.onDeleted(uuid, vessel, null);
+    }
+
+    /**
+     * Delete vessel with input information from vessel tables, asynchronously.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param uuid      UUID
+     * @param vessel    vessel
+     * @return future completed once vessel is deleted
+     */
+    private CompletableFuture<Void> deleteAsync(final VesselOperation operation, final UUID uuid, final Vessel vessel) {
+        return this.executeAsync(operation, this.deleteQuery(uuid, vessel), result -> (Void) null)
+                .whenComplete((result, failure) -> this.onDeleted(uuid, vessel, failure));
+    }
+
+    /**
+     * Get query that deletes vessel with input information from vessel tables.
+     *
      * @param uuid   UUID
      * @param vessel vessel
-     * @param <T>    vessel table type
+     * @return query
      */
-    private <T> void delete(final UUID uuid, final Vessel vessel) {
-        final BatchStatement batch = new BatchStatement();
+    private Statement deleteQuery(final UUID uuid, final Vessel vessel) {
+        final List<BoundStatement> statements = new ArrayList<>();
+        this.addFormerLayoutDeletes(statements, uuid, vessel);
         for (final VesselTableType table : VesselTableType.values()) {
             if (table.isRelevant(vessel)) {
-                final T entity = table.getEntity(uuid, vessel);
-                final Mapper<T> mapper = this.mappingManager.mapper(table.<T>getTableClass());
-                batch.add(mapper.deleteQuery(entity));
+                statements.add(this.statements.bindDelete(table, uuid, vessel));
             }
         }
-        this.session.execute(batch);
+        final BatchStatement batch = new BatchStatement();
+        statements.forEach(batch::add);
+        return batch.setIdempotent(false);
+    }
+
+    /**
+     * Update in-process state (caches and name fragment index) once vessel with input information has been deleted.
+     *
+     * @param uuid    UUID
+     * @param vessel  vessel
+     * @param failure failure, or null if vessel has been deleted
+     */
+    private void onDeleted(final UUID uuid, final Vessel vessel, final Throwable failure) {
+        final String visibility = this.visibilityKeys.of(uuid, vessel);
+        this.vesselCache.invalidate(uuid.toString());
+        this.visibilityCache.invalidate(visibility);
+        this.onFormerLayoutWritten(uuid, vessel, failure);
+        if (failure == null && this.nameFragmentIndex != null) {
+            this.nameFragmentIndex.remove(visibility, uuid.toString());
+        }
+    }
+
+    /**
+     * Update in-process state (caches and name fragment index) once the vessels table row of vessel with input
+     * information in the former layout has been deleted, while vessels are resharded.
+     *
+     * @param uuid    UUID
+     * @param vessel  vessel
+     * @param failure failure, or null if row has been deleted
+     */
+    private void onFormerLayoutWritten(final UUID uuid, final Vessel vessel, final Throwable failure) {
+        this.visibilityKeys.formerOf(uuid, vessel).ifPresent(visibility -> {
+            this.visibilityCache.invalidate(visibility);
+            if (failure == null && this.nameFragmentIndex != null) {
+                this.nameFragmentIndex.remove(visibility, uuid.toString());
+            }
+        });
+    }
+
+    /**
+     * Execute input query, and map result set.
+     * <p>
+     * Round-trip and mapping times are recorded separately for input operation. Rows that do not fit in the first page
+     * would be fetched while mapping, so that this method is meant for queries that select at most one page.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param query     query
+     * @param mapping   result set mapping
+     * @param <T>       result type
+     * @return result
+     */
+    private <T> T execute(final VesselOperation operation, final Statement query, final Function<ResultSet, T> mapping) {
+        final ResultSet result;
+        final Timer.Context roundTrip = this.metrics.getRoundTripTimer(operation).time();
+        try {
+            result = this.session.execute(query);
+        } finally {
+            roundTrip.stop();
+        }
+        final Timer.Context context = this.metrics.getMappingTimer(operation).time();
+        try {
+            return mapping.apply(result);
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Execute input query asynchronously, and map result set with executor.
+     * <p>
+     * All pages of the result set are fetched asynchronously before it is mapped, so that mapping never blocks on I/O
+     * and round-trip and mapping times are recorded separately for input operation.
+     *
+     * @param operation operation that Cassandra request is recorded for
+     * @param query     query
+     * @param mapping   result set mapping
+     * @param <T>       result type
+     * @return future result
+     */
+    private <T> CompletableFuture<T> executeAsync(final VesselOperation operation, final Statement query,
+                                                  final Function<ResultSet, T> mapping) {
+        final Timer.Context roundTrip = this.metrics.getRoundTripTimer(operation).time();
+        return CompletableFutures.toCompletableFuture(this.session.executeAsync(query))
+                .thenCompose(VesselService::fetchAll)
+                .whenComplete((result, failure) -> roundTrip.stop())
+                .thenApplyAsync(result -> {
+                    final Timer.Context context = this.metrics.getMappingTimer(operation).time();
+                    try {
+                        return mapping.apply(result);
+                    } finally {
+                        context.stop();
+                    }
+                }, this.executor);
+    }
+
+    /**
+     * Fetch all remaining pages of input result set, asynchronously.
+     *
+     * @param result result set
+     * @return future result set, which is fully fetched
+     */
+    private static CompletableFuture<ResultSet> fetchAll(final ResultSet result) {
+        return result.isFullyFetched()
+                ? CompletableFuture.completedFuture(result)
+                : CompletableFutures.toCompletableFuture(result.fetchMoreResults())
+                .thenCompose(VesselService::fetchAll);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import test.sdc.model.Vessel;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registry of prepared vessel statements.
+ * <p>
+ * Statements are prepared all at once, and prepared again lazily after any schema change in the session keyspace,
+ * so that result set metadata never gets stale. The row codec of each statement with a "vessel" variable is built
+ * along with it, so that variable indexes are resolved once per prepared statement rather than once per write.
+ * <p>
+ * Absent values are left unset rather than bound to null, so that no tombstone is written, unless the native protocol
+ * version does not support unset values (before V4).
+ */
+final class VesselStatementRegistry
+        extends SchemaChangeListenerBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VesselStatementRegistry.class);
+
+    private final Session session;
+    private final VisibilityKeys visibilityKeys;
+    private final boolean unsetSupported;
+    private volatile Map<VesselQueryType, PreparedQuery> statements;
+
+    /**
+     * Constructor.
+     *
+     * @param session        session
+     * @param visibilityKeys keys of vessels table partitions
+     */
+    private VesselStatementRegistry(final Session session, final VisibilityKeys visibilityKeys) {
+        this.session = session;
+        this.visibilityKeys = visibilityKeys;
+        final ProtocolVersion protocolVersion = session.getCluster().getConfiguration().getProtocolOptions()
+                .getProtocolVersion();
+        this.unsetSupported = protocolVersion == null || protocolVersion.compareTo(ProtocolVersion.V4) >= 0;
+    }
+
+    /**
+     * Prepare all statements and listen to schema changes.
+     *
+     * @param session        session
+     * @param visibilityKeys keys of vessels table partitions, which rows of vessels are bound with
+     * @return new registry
+     */
+    public static VesselStatementRegistry prepare(final Session session, final VisibilityKeys visibilityKeys) {
+        final VesselStatementRegistry registry = new VesselStatementRegistry(session, visibilityKeys);
+        registry.statements = registry.prepareAll();
+        session.getCluster().register(registry);
+        return registry;
+    }
+
+    /**
+     * Bind input values to prepared statement.
+     *
+     * @param query  query
+     * @param values values
+     * @return bound statement
+     */
+    public BoundStatement bind(final VesselQueryType query, final Object... values) {
+        return this.get(query).bind(values);
+    }
+
+    /**
+     * Bind row of vessel with input information to the save query of input table, as a new row: last departure info is
+     * left unset if vessel has none, so that no tombstone is written.
+     *
+     * @param table  vessel table
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @return bound statement
+     */
+    public BoundStatement bindSave(final VesselTableType table, final UUID uuid, final Vessel vessel) {
+        return this.bindSave(table, uuid, vessel, false);
+    }
+
+    /**
+     * Bind row of vessel with input information to the save query of input table.
+     *
+     * @param table          vessel table
+     * @param uuid           UUID
+     * @param vessel         vessel
+     * @param clearDeparture whether last departure info of the saved row is to be cleared if vessel has none (which
+     *                       writes tombstones), because the row held some
+     * @return bound statement
+     */
+    public BoundStatement bindSave(final VesselTableType table, final UUID uuid, final Vessel vessel,
+                                   final boolean clearDeparture) {
+        final PreparedQuery query = this.getPrepared(table.getSaveQuery());
+        return query.codec.bind(table.bindSave(query.statement, this.visibilityKeys, uuid, vessel), vessel,
+                clearDeparture || !this.unsetSupported);
+    }
+
+    /**
+     * Bind row of vessel with input information to the delete query of input table.
+     *
+     * @param table  vessel table
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @return bound statement
+     */
+    public BoundStatement bindDelete(final VesselTableType table, final UUID uuid, final Vessel vessel) {
+        return table.bindDelete(this.get(table.getDeleteQuery()), this.visibilityKeys, uuid, vessel);
+    }
+
+    /**
+     * Bind row of vessel with input information in the former layout of visibility keys to the delete query of input
+     * table, while vessels are being resharded.
+     *
+     * @param table  vessel table, whose rows are keyed by visibility
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @return bound statement
+     */
+    public BoundStatement bindFormerDelete(final VesselTableType table, final UUID uuid, final Vessel vessel) {
+        return table.bindDelete(this.get(table.getDeleteQuery()), this.visibilityKeys.getFormer(), uuid, vessel);
+    }
+
+    /**
+     * Get prepared statement, preparing all statements again if schema changed.
+     *
+     * @param query query
+     * @return prepared statement
+     */
+    public PreparedStatement get(final VesselQueryType query) {
+        return this.getPrepared(query).statement;
+    }
+
+    /**
+     * Get prepared statement and its row codec, preparing all statements again if schema changed.
+     *
+     * @param query query
+     * @return prepared statement and row codec
+     */
+    private PreparedQuery getPrepared(final VesselQueryType query) {
+        Map<VesselQueryType, PreparedQuery> current = this.statements;
+        if (current == null) {
+            synchronized (this) {
+                if (this.statements == null) {
+                    this.statements = this.prepareAll();
+                }
+                current = this.statements;
+            }
+        }
+        return current.get(query);
+    }
+
+    /**
+     * Stop listening to schema changes.
+     */
+    public void close() {
+        this.session.getCluster().unregister(this);
+    }
+
+    /**
+     * Prepare all statements.
+     *
+     * @return prepared statements
+     */
+    private Map<VesselQueryType, PreparedQuery> prepareAll() {
+        final Map<VesselQueryType, PreparedQuery> res = new EnumMap<>(VesselQueryType.class);
+        for (final VesselQueryType query : VesselQueryType.values()) {
+            final RegularStatement statement = query.getStatement();
+            LOGGER.trace("Prepare CQL query: {}", statement);
+            final PreparedStatement prepared = this.session.prepare(statement);
+            query.getConsistencyLevel().ifPresent(prepared::setConsistencyLevel);
+            res.put(query, new PreparedQuery(prepared, prepared.getVariables().contains("vessel")
+                    ? VesselRowCodec.of(prepared.getVariables())
+                    : null));
+        }
+        return res;
+    }
+
+    /**
+     * Discard prepared statements if input keyspace is the session keyspace.
+     *
+     * @param keyspace keyspace of modified schema element
+     */
+    private void invalidate(final String keyspace) {
+        if (keyspace.equals(this.session.getLoggedKeyspace())) {
+            LOGGER.debug("Schema of keyspace {} changed: statements will be prepared again", keyspace);
+            this.statements = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onTableAdded(final TableMetadata table) {
+        this.invalidate(table.getKeyspace().getName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onTableChanged(final TableMetadata current, final TableMetadata previous) {
+        this.invalidate(current.getKeyspace().getName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onUserTypeChanged(final UserType current, final UserType previous) {
+        this.invalidate(current.getKeyspace());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onMaterializedViewAdded(final MaterializedViewMetadata view) {
+        this.invalidate(view.getKeyspace().getName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onMaterializedViewChanged(final MaterializedViewMetadata current, final MaterializedViewMetadata previous) {
+        this.invalidate(current.getKeyspace().getName());
+    }
+
+    /**
+     * Prepared statement, with its row codec.
+     */
+    private static final class PreparedQuery {
+
+        private final PreparedStatement statement;
+        private final VesselRowCodec codec;
+
+        /**
+         * Constructor.
+         *
+         * @param statement prepared statement
+         * @param codec     row codec of statement variables, or null if statement has no "vessel" variable
+         */
+        private PreparedQuery(final PreparedStatement statement, final VesselRowCodec codec) {
+            this.statement = statement;
+            this.codec = codec;
+        }
+
+    }
+
+}
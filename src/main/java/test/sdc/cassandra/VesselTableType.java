@@ -1,73 +1,227 @@
 package test.sdc.cassandra;
 
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
 import test.sdc.cassandra.model.VesselsByDeparturePortTable;
-import test.sdc.cassandra.model.VesselsByUuidTable;
-import test.sdc.cassandra.model.VesselsTable;
 import test.sdc.model.Vessel;
+import test.sdc.model.VesselDeparture;
 
+import java.util.Date;
 import java.util.UUID;
 
 /**
  * Vessel tables.
+ * <p>
+ * Rows of a vessel are bound straight into prepared statements, in the order of the parameters of the save and delete
+ * queries of the table (the "vessel" UDT and last departure info being then bound by the {@link VesselRowCodec} of the
+ * save query, which is built once per prepared statement).
  */
 enum VesselTableType {
 
-    VESSELS(VesselsTable.class) {
+    VESSELS(VesselQueryType.SAVE_INTO_VESSELS, VesselQueryType.DELETE_FROM_VESSELS) {
         @Override
-        public <T> T getEntity(final UUID uuid, final Vessel vessel) {
-            return (T) VesselsTable.from(uuid, vessel);
+        public BoundStatement bindSave(final PreparedStatement statement, final VisibilityKeys keys,
+                                       final UUID uuid, final Vessel vessel) {
+            return statement.bind()
+                    .setString(0, keys.of(uuid, vessel))
+                    .setUUID(1, uuid)
+                    .setString(3, vessel.getName())
+                    .setString(4, vessel.getCategory().getUuid());
+        }
+
+        @Override
+        public BoundStatement bindDelete(final PreparedStatement statement, final VisibilityKeys keys,
+                                         final UUID uuid, final Vessel vessel) {
+            return statement.bind()
+                    .setString(0, keys.of(uuid, vessel))
+                    .setUUID(1, uuid);
+        }
+
+        @Override
+        public boolean hasSameKey(final VisibilityKeys keys, final UUID uuid, final Vessel vessel, final Vessel other) {
+            return keys.of(uuid, vessel).equals(keys.of(uuid, other));
+        }
+
+        @Override
+        public boolean isKeyedByVisibility() {
+            return true;
         }
     },
 
-    VESSELS_BY_UUID(VesselsByUuidTable.class) {
+    VESSELS_BY_UUID(VesselQueryType.SAVE_INTO_VESSELS_BY_UUID, VesselQueryType.DELETE_FROM_VESSELS_BY_UUID) {
+        @Override
+        public BoundStatement bindSave(final PreparedStatement statement, final VisibilityKeys keys,
+                                       final UUID uuid, final Vessel vessel) {
+            return statement.bind()
+                    .setUUID(0, uuid);
+        }
+
+        @Override
+        public BoundStatement bindDelete(final PreparedStatement statement, final VisibilityKeys keys,
+                                         final UUID uuid, final Vessel vessel) {
+            return statement.bind()
+                    .setUUID(0, uuid);
+        }
+
+        @Override
+        public boolean hasSameKey(final VisibilityKeys keys, final UUID uuid, final Vessel vessel, final Vessel other) {
+            return true;
+        }
+    },
+
+    VESSELS_BY_CATEGORY(VesselQueryType.SAVE_INTO_VESSELS_BY_CATEGORY, VesselQueryType.DELETE_FROM_VESSELS_BY_CATEGORY) {
+        @Override
+        public BoundStatement bindSave(final PreparedStatement statement, final VisibilityKeys keys,
+                                       final UUID uuid, final Vessel vessel) {
+            return statement.bind()
+                    .setString(0, keys.of(uuid, vessel))
+                    .setString(1, vessel.getCategory().getUuid())
+                    .setUUID(2, uuid)
+                    .setString(4, vessel.getName());
+        }
+
+        @Override
+        public BoundStatement bindDelete(final PreparedStatement statement, final VisibilityKeys keys,
+                                         final UUID uuid, final Vessel vessel) {
+            return statement.bind()
+                    .setString(0, keys.of(uuid, vessel))
+                    .setString(1, vessel.getCategory().getUuid())
+                    .setUUID(2, uuid);
+        }
+
+        @Override
+        public boolean hasSameKey(final VisibilityKeys keys, final UUID uuid, final Vessel vessel, final Vessel other) {
+            return keys.of(uuid, vessel).equals(keys.of(uuid, other))
+                    && vessel.getCategory().equals(other.getCategory());
+        }
+
         @Override
-        public <T> T getEntity(final UUID uuid, final Vessel vessel) {
-            return (T) VesselsByUuidTable.from(uuid, vessel);
+        public boolean isKeyedByVisibility() {
+            return true;
         }
     },
 
-    VESSELS_BY_DEPARTURE_PORT(VesselsByDeparturePortTable.class) {
+    VESSELS_BY_DEPARTURE_PORT(VesselQueryType.SAVE_INTO_VESSELS_BY_DEPARTURE_PORT,
+            VesselQueryType.DELETE_FROM_VESSELS_BY_DEPARTURE_PORT) {
+        @Override
+        public BoundStatement bindSave(final PreparedStatement statement, final VisibilityKeys keys,
+                                       final UUID uuid, final Vessel vessel) {
+            return bindDeparture(statement, uuid, vessel);
+        }
+
         @Override
-        public <T> T getEntity(final UUID uuid, final Vessel vessel) {
-            return (T) VesselsByDeparturePortTable.from(uuid, vessel);
+        public BoundStatement bindDelete(final PreparedStatement statement, final VisibilityKeys keys,
+                                         final UUID uuid, final Vessel vessel) {
+            return bindDeparture(statement, uuid, vessel);
         }
 
         @Override
         public boolean isRelevant(final Vessel vessel) {
             return vessel.getLastDeparture().isPresent();
         }
+
+        @Override
+        public boolean hasSameKey(final VisibilityKeys keys, final UUID uuid, final Vessel vessel, final Vessel other) {
+            return vessel.getLastDeparture().equals(other.getLastDeparture());
+        }
+
+        /**
+         * Bind primary key of the row of input vessel.
+         *
+         * @param statement prepared statement
+         * @param uuid      UUID
+         * @param vessel    vessel, with last departure info
+         * @return bound statement
+         */
+        private BoundStatement bindDeparture(final PreparedStatement statement, final UUID uuid, final Vessel vessel) {
+            final VesselDeparture lastDeparture = vessel.getLastDeparture()
+                    .orElseThrow(() -> new IllegalArgumentException("Last departure info is mandatory"));
+            return statement.bind()
+                    .setString(0, lastDeparture.getDeparturePort().getUuid())
+                    .setTimestamp(1, VesselsByDeparturePortTable.getDepartureBucket(lastDeparture.getDepartureTime()))
+                    .setTimestamp(2, Date.from(lastDeparture.getDepartureTime()))
+                    .setUUID(3, uuid);
+        }
     },;
 
-    private final Class<?> tableClass;
+    private final VesselQueryType saveQuery;
+    private final VesselQueryType deleteQuery;
 
     /**
      * Constructor.
      *
-     * @param tableClass class that models table
+     * @param saveQuery   query that saves the row of a vessel
+     * @param deleteQuery query that deletes the row of a vessel
+     */
+    VesselTableType(final VesselQueryType saveQuery, final VesselQueryType deleteQuery) {
+        this.saveQuery = saveQuery;
+        this.deleteQuery = deleteQuery;
+    }
+
+    /**
+     * Get query that saves the row of a vessel.
+     *
+     * @return save query
      */
-    VesselTableType(final Class<?> tableClass) {
-        this.tableClass = tableClass;
+    public VesselQueryType getSaveQuery() {
+        return this.saveQuery;
     }
 
     /**
-     * Get class that models table.
+     * Get query that deletes the row of a vessel.
      *
-     * @param <T> class that models table
-     * @return class that models table
+     * @return delete query
      */
-    public <T> Class<T> getTableClass() {
-        return (Class<T>) this.tableClass;
+    public VesselQueryType getDeleteQuery() {
+        return this.deleteQuery;
     }
 
     /**
-     * Get table entity for vessel with input information.
+     * Bind row of vessel with input information to save query, except for the "vessel" UDT and last departure info
+     * (which are bound by {@link VesselRowCodec}).
      *
+     * @param statement prepared save query
+     * @param keys      visibility keys
+     * @param uuid      UUID
+     * @param vessel    vessel
+     * @return bound statement
+     */
+    public abstract BoundStatement bindSave(final PreparedStatement statement, final VisibilityKeys keys,
+                                            final UUID uuid, final Vessel vessel);
+
+    /**
+     * Bind primary key of the row of vessel with input information to delete query.
+     *
+     * @param statement prepared delete query
+     * @param keys      visibility keys
+     * @param uuid      UUID
+     * @param vessel    vessel
+     * @return bound statement
+     */
+    public abstract BoundStatement bindDelete(final PreparedStatement statement, final VisibilityKeys keys,
+                                              final UUID uuid, final Vessel vessel);
+
+    /**
+     * Check if rows of input vessels, which have the same UUID and are both relevant for the table, have the same
+     * primary key (so that saving one overwrites the other).
+     *
+     * @param keys   visibility keys
      * @param uuid   UUID
      * @param vessel vessel
-     * @param <T>    class that models table
-     * @return table entity for vessel with input information
+     * @param other  other state of vessel
+     * @return do rows have the same primary key
+     */
+    public abstract boolean hasSameKey(final VisibilityKeys keys, final UUID uuid, final Vessel vessel, final Vessel other);
+
+    /**
+     * Check if the primary key of table rows includes the visibility key, in which case rows move to another partition
+     * when vessels are resharded (false unless overridden).
+     *
+     * @return are rows keyed by visibility
      */
-    public abstract <T> T getEntity(final UUID uuid, final Vessel vessel);
+    public boolean isKeyedByVisibility() {
+        return false;
+    }
 
     /**
      * Check if table is relevant for input vessel (true unless overridden).
@@ -79,4 +233,4 @@ enum VesselTableType {
         return true;
     }
 
-}
\ No newline at end of file
+}
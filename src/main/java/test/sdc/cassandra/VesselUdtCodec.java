@@ -0,0 +1,223 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.UserType;
+import test.sdc.model.Vessel;
+import test.sdc.model.VesselDeparture;
+import test.sdc.model.VisibilityType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Codec of the frozen vessel UDT, which serializes vessels into and deserializes vessels from the protocol format
+ * straight, without intermediate UDT value, field buffers or dates.
+ * <p>
+ * Fields are read and written in the order of the UDT definition (fields that are unknown to the codec are skipped,
+ * and are written as null). As the UUID of a vessel is not part of the UDT, deserialization requires the UUID of the
+ * row: see {@link #deserialize(String, ByteBuffer)}. For the same reason, the codec is not a driver {@link
+ * com.datastax.driver.core.TypeCodec}: raw bytes are bound to and read from statements and rows by
+ * {@link VesselRowCodec}.
+ */
+final class VesselUdtCodec {
+
+    private static final int NULL_LENGTH = -1;
+    private static final int TIMESTAMP_LENGTH = 8;
+    private static final String NAME = "name";
+    private static final String CATEGORY = "category";
+    private static final String VISIBILITY = "visibility";
+    private static final String CREATION_CENTER = "creation_center";
+    private static final String LAST_DEPARTURE_PORT = "last_departure_port";
+    private static final String LAST_DEPARTURE_TIME = "last_departure_time";
+
+    /**
+     * Fields of the UDT, in the order of the UDT definition (null for unknown fields).
+     */
+    private final String[] fields;
+
+    /**
+     * Constructor.
+     *
+     * @param cqlType vessel UDT
+     */
+    VesselUdtCodec(final UserType cqlType) {
+        this.fields = new String[cqlType.size()];
+        int index = 0;
+        for (final String field : cqlType.getFieldNames()) {
+            this.fields[index++] = isKnown(field) ? field : null;
+        }
+        for (final String field : new String[]{NAME, CATEGORY, VISIBILITY, CREATION_CENTER,
+                LAST_DEPARTURE_PORT, LAST_DEPARTURE_TIME}) {
+            checkArgument(cqlType.contains(field), "Missing vessel field: %s", field);
+        }
+    }
+
+    /**
+     * Check if input UDT field is known to the codec.
+     *
+     * @param field UDT field
+     * @return is field known
+     */
+    private static boolean isKnown(final String field) {
+        switch (field) {
+            case NAME:
+            case CATEGORY:
+            case VISIBILITY:
+            case CREATION_CENTER:
+            case LAST_DEPARTURE_PORT:
+            case LAST_DEPARTURE_TIME:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Serialize input vessel into UDT (the format of which does not depend on the protocol version).
+     *
+     * @param value vessel
+     * @return serialized UDT, or null if vessel is null
+     */
+    public ByteBuffer serialize(final Vessel value) {
+        if (value == null) {
+            return null;
+        }
+        final byte[][] values = new byte[this.fields.length][];
+        int size = 0;
+        for (int i = 0; i < this.fields.length; i++) {
+            values[i] = this.fields[i] == null ? null : serializeField(this.fields[i], value);
+            size += Integer.BYTES + (values[i] == null ? 0 : values[i].length);
+        }
+        final ByteBuffer res = ByteBuffer.allocate(size);
+        for (final byte[] field : values) {
+            if (field == null) {
+                res.putInt(NULL_LENGTH);
+            } else {
+                res.putInt(field.length).put(field);
+            }
+        }
+        res.flip();
+        return res;
+    }
+
+    /**
+     * Serialize input field of input vessel.
+     *
+     * @param field  UDT field
+     * @param vessel vessel
+     * @return serialized field, or null if field is not set
+     */
+    private static byte[] serializeField(final String field, final Vessel vessel) {
+        final Optional<VesselDeparture> lastDeparture = vessel.getLastDeparture();
+        switch (field) {
+            case NAME:
+                return vessel.getName().getBytes(StandardCharsets.UTF_8);
+            case CATEGORY:
+                return vessel.getCategory().getUuid().getBytes(StandardCharsets.UTF_8);
+            case VISIBILITY:
+                return vessel.getVisibility().name().getBytes(StandardCharsets.UTF_8);
+            case CREATION_CENTER:
+                return vessel.getCreationCenter().getUuid().getBytes(StandardCharsets.UTF_8);
+            case LAST_DEPARTURE_PORT:
+                return lastDeparture
+                        .map(departure -> departure.getDeparturePort().getUuid().getBytes(StandardCharsets.UTF_8))
+                        .orElse(null);
+            case LAST_DEPARTURE_TIME:
+                return lastDeparture
+                        .map(departure -> ByteBuffer.allocate(TIMESTAMP_LENGTH)
+                                .putLong(departure.getDepartureTime().toEpochMilli())
+                                .array())
+                        .orElse(null);
+            default:
+                throw new IllegalStateException("Unexpected vessel field: " + field);
+        }
+    }
+
+    /**
+     * Deserialize vessel with input UUID from input serialized UDT.
+     *
+     * @param uuid  UUID of the row
+     * @param bytes serialized UDT (not consumed)
+     * @return vessel, or null if UDT is null
+     */
+    public Vessel deserialize(final String uuid, final ByteBuffer bytes) {
+        return this.deserialize(uuid, bytes, null);
+    }
+
+    /**
+     * Deserialize vessel with input UUID from input serialized UDT, with input last departure info rather than the
+     * one of the UDT.
+     *
+     * @param uuid          UUID of the row
+     * @param bytes         serialized UDT (not consumed)
+     * @param lastDeparture last departure info, or null to use the one of the UDT
+     * @return vessel, or null if UDT is null
+     */
+    public Vessel deserialize(final String uuid, final ByteBuffer bytes, final VesselDeparture lastDeparture) {
+        if (bytes == null || !bytes.hasRemaining()) {
+            return null;
+        }
+        final Vessel.Builder builder = Vessel.fromUuid(uuid);
+        String lastDeparturePort = null;
+        Instant lastDepartureTime = null;
+        int position = bytes.position();
+        for (int i = 0; i < this.fields.length && position < bytes.limit(); i++) {
+            final int length = bytes.getInt(position);
+            position += Integer.BYTES;
+            if (length >= 0 && this.fields[i] != null) {
+                switch (this.fields[i]) {
+                    case NAME:
+                        builder.withName(readString(bytes, position, length));
+                        break;
+                    case CATEGORY:
+                        builder.withCategory(readString(bytes, position, length));
+                        break;
+                    case VISIBILITY:
+                        builder.withVisibility(VisibilityType.valueOf(readString(bytes, position, length)));
+                        break;
+                    case CREATION_CENTER:
+                        builder.withCreationCenter(readString(bytes, position, length));
+                        break;
+                    case LAST_DEPARTURE_PORT:
+                        lastDeparturePort = readString(bytes, position, length);
+                        break;
+                    case LAST_DEPARTURE_TIME:
+                        lastDepartureTime = Instant.ofEpochMilli(bytes.getLong(position));
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected vessel field: " + this.fields[i]);
+                }
+            }
+            position += Math.max(length, 0);
+        }
+        if (lastDeparture != null) {
+            builder.withDeparture(lastDeparture.getDeparturePort(), lastDeparture.getDepartureTime());
+        } else if (lastDeparturePort != null || lastDepartureTime != null) {
+            builder.withDeparture(lastDeparturePort, lastDepartureTime);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read UTF-8 string at input position, without moving buffer position.
+     *
+     * @param bytes    buffer
+     * @param position position
+     * @param length   length, in bytes
+     * @return string
+     */
+    private static String readString(final ByteBuffer bytes, final int position, final int length) {
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        }
+        final byte[] res = new byte[length];
+        for (int i = 0; i < length; i++) {
+            res[i] = bytes.get(position + i);
+        }
+        return new String(res, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,193 @@
+package test.sdc.cassandra;
+
+import test.sdc.cassandra.model.VesselsTable;
+import test.sdc.model.CenterReference;
+import test.sdc.model.Vessel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Keys of vessels table partitions ("visibility" column).
+ * <p>
+ * Vessels that are visible to all centers are spread over a number of global shards, which is derived from their UUID,
+ * so that no single partition holds all of them: shard 0 is keyed "_ALL" (as without sharding), and shard N is keyed
+ * "_ALL:N". Vessels that are visible to their creation center only are keyed by the UUID of the center.
+ * <p>
+ * While vessels are resharded (see {@link VisibilityResharder}), the former number of shards is kept, so that reads
+ * cover the global shards of both layouts and writes delete rows of the former layout.
+ */
+final class VisibilityKeys {
+
+    private static final String SHARD_SEPARATOR = ":";
+
+    private final int shards;
+    private final int formerShards;
+
+    /**
+     * Constructor.
+     *
+     * @param shards       number of global shards
+     * @param formerShards former number of global shards while resharding, or 0
+     */
+    private VisibilityKeys(final int shards, final int formerShards) {
+        this.shards = shards;
+        this.formerShards = formerShards;
+    }
+
+    /**
+     * Get keys for input number of global shards.
+     *
+     * @param shards       number of global shards
+     * @param formerShards former number of global shards while resharding, or 0
+     * @return visibility keys
+     */
+    public static VisibilityKeys of(final int shards, final int formerShards) {
+        checkArgument(shards > 0, "Number of global shards must be positive");
+        checkArgument(formerShards >= 0, "Former number of global shards must not be negative");
+        return new VisibilityKeys(shards, formerShards == shards ? 0 : formerShards);
+    }
+
+    /**
+     * Check if vessels are being resharded, in which case a vessel may be read from both layouts.
+     *
+     * @return are vessels being resharded
+     */
+    public boolean isResharding() {
+        return this.formerShards > 0;
+    }
+
+    /**
+     * Get keys of the former layout, while vessels are being resharded.
+     *
+     * @return former visibility keys
+     */
+    public VisibilityKeys getFormer() {
+        checkState(this.isResharding(), "Vessels are not being resharded");
+        return new VisibilityKeys(this.formerShards, 0);
+    }
+
+    /**
+     * Get key of the partition of the row of vessel with input information.
+     *
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @return visibility key
+     */
+    public String of(final UUID uuid, final Vessel vessel) {
+        return of(uuid, vessel, this.shards);
+    }
+
+    /**
+     * Get key of the partition of the row of vessel with input information in the former layout, if vessels are being
+     * resharded and it differs from current key.
+     *
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @return former visibility key
+     */
+    public Optional<String> formerOf(final UUID uuid, final Vessel vessel) {
+        if (!this.isResharding()) {
+            return Optional.empty();
+        }
+        final String res = of(uuid, vessel, this.formerShards);
+        return res.equals(this.of(uuid, vessel)) ? Optional.empty() : Optional.of(res);
+    }
+
+    /**
+     * Get key of the global shard of vessel with input UUID.
+     *
+     * @param uuid UUID
+     * @return global visibility key
+     */
+    public String getGlobalKey(final UUID uuid) {
+        return getGlobalKey(uuid, this.shards);
+    }
+
+    /**
+     * Get keys of the partitions that are visible to input center: global shards, then center partition.
+     *
+     * @param center center
+     * @return visibility keys
+     */
+    public List<String> of(final CenterReference center) {
+        final List<String> res = new ArrayList<>(this.getGlobalKeys());
+        res.add(center.getUuid());
+        return res;
+    }
+
+    /**
+     * Get keys of global shards, including shards of the former layout while resharding.
+     *
+     * @return global visibility keys
+     */
+    public List<String> getGlobalKeys() {
+        final Set<String> res = new LinkedHashSet<>(getGlobalKeys(this.shards));
+        res.addAll(getGlobalKeys(this.formerShards));
+        return new ArrayList<>(res);
+    }
+
+    /**
+     * Get key of the partition of the row of vessel with input information, for input number of global shards.
+     *
+     * @param uuid   UUID
+     * @param vessel vessel
+     * @param shards number of global shards
+     * @return visibility key
+     */
+    private static String of(final UUID uuid, final Vessel vessel, final int shards) {
+        switch (vessel.getVisibility()) {
+            case ALL_CENTERS:
+                return getGlobalKey(uuid, shards);
+            case CREATION_CENTER_ONLY:
+                return vessel.getCreationCenter().getUuid();
+            default:
+                throw new IllegalStateException("Unexpected vessel visibility: " + vessel.getVisibility());
+        }
+    }
+
+    /**
+     * Get key of the global shard of vessel with input UUID, for input number of global shards.
+     *
+     * @param uuid   UUID
+     * @param shards number of global shards
+     * @return global visibility key
+     */
+    private static String getGlobalKey(final UUID uuid, final int shards) {
+        return getGlobalKey(Math.floorMod(uuid.hashCode(), shards));
+    }
+
+    /**
+     * Get keys of global shards, for input number of global shards.
+     *
+     * @param shards number of global shards
+     * @return global visibility keys
+     */
+    private static List<String> getGlobalKeys(final int shards) {
+        final List<String> res = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            res.add(getGlobalKey(shard));
+        }
+        return res;
+    }
+
+    /**
+     * Get key of input global shard.
+     *
+     * @param shard shard
+     * @return global visibility key
+     */
+    private static String getGlobalKey(final int shard) {
+        return shard == 0
+                ? VesselsTable.getGlobalVisibilityKey()
+                : VesselsTable.getGlobalVisibilityKey() + SHARD_SEPARATOR + shard;
+    }
+
+}
@@ -0,0 +1,127 @@
+package test.sdc.cassandra;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheStats;
+import test.sdc.model.Vessel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-process cache of the content of vessels table partitions, by visibility key.
+ * <p>
+ * The partition of vessels with global visibility is visible to all centers, so that a single entry is shared by all
+ * centers. The cache is kept up to date by writes of the current node only: writes of other nodes are visible once
+ * entries expire. Partitions that are read are cached only if no vessel of the partition was written meanwhile (see
+ * {@link #getStamp(String)}), so that a read that started before a write cannot cache the content prior to the write.
+ */
+final class VisibilityPartitionCache {
+
+    private static final VisibilityPartitionCache DISABLED = new VisibilityPartitionCache(null);
+
+    private final Cache<String, List<Vessel>> cache;
+    private final CacheStamps stamps = new CacheStamps();
+
+    /**
+     * Constructor.
+     *
+     * @param cache cache, or null if caching is disabled
+     */
+    private VisibilityPartitionCache(final Cache<String, List<Vessel>> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Get cache that never holds any partition.
+     *
+     * @return disabled cache
+     */
+    public static VisibilityPartitionCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Initialize cache from input specification.
+     *
+     * @param spec specification, in the format of {@link CacheBuilderSpec} (e.g. "maximumSize=1000,expireAfterWrite=10s")
+     * @return new cache
+     */
+    public static VisibilityPartitionCache from(final String spec) {
+        final Cache<String, List<Vessel>> cache = CacheBuilder.from(spec)
+                .recordStats()
+                .build();
+        return new VisibilityPartitionCache(cache);
+    }
+
+    /**
+     * Get cached partition content.
+     *
+     * @param visibility visibility key
+     * @return cached vessels of partition, if any
+     */
+    public Optional<List<Vessel>> get(final String visibility) {
+        return this.cache == null
+                ? Optional.empty()
+                : Optional.ofNullable(this.cache.getIfPresent(visibility));
+    }
+
+    /**
+     * Get stamp of partition with input visibility key, to be taken before partition is read.
+     *
+     * @param visibility visibility key
+     * @return stamp
+     * @see #put(String, List, long)
+     */
+    public long getStamp(final String visibility) {
+        return this.cache == null ? 0L : this.stamps.get(visibility);
+    }
+
+    /**
+     * Cache input partition content, which has been read, unless partition has been written since its stamp was
+     * taken.
+     *
+     * @param visibility visibility key
+     * @param vessels    vessels of partition
+     * @param stamp      stamp of partition, taken before it was read
+     * @return vessels of partition
+     */
+    public List<Vessel> put(final String visibility, final List<Vessel> vessels, final long stamp) {
+        final List<Vessel> res = Collections.unmodifiableList(new ArrayList<>(vessels));
+        if (this.cache != null && this.stamps.isCurrent(visibility, stamp)) {
+            this.cache.put(visibility, res);
+            if (!this.stamps.isCurrent(visibility, stamp)) {
+                // Written while being cached: the write may have invalidated the partition before it was cached
+                this.cache.invalidate(visibility);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Remove partition with input visibility key from cache.
+     *
+     * @param visibility visibility key
+     */
+    public void invalidate(final String visibility) {
+        if (this.cache != null) {
+            this.stamps.invalidate(visibility);
+            this.cache.invalidate(visibility);
+        }
+    }
+
+    /**
+     * Get statistics (hit, miss and eviction counts).
+     *
+     * @return statistics
+     */
+    public CacheStats getStats() {
+        return this.cache == null
+                ? new CacheStats(0L, 0L, 0L, 0L, 0L, 0L)
+                : this.cache.stats();
+    }
+
+}
@@ -0,0 +1,218 @@
+package test.sdc.cassandra;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.querybuilder.Select;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Tool that moves vessels that are visible to all centers to their shard, after the number of global shards changed.
+ * <p>
+ * Resharding is online, provided that vessel services are configured with both the new and the former number of
+ * shards while it runs (see {@link VesselService#setFormerGlobalVisibilityShards(int)}):
+ * <ol>
+ * <li>configure services with the new and the former number of global shards</li>
+ * <li>run the tool, which copies each misplaced row to its shard and deletes it from its former partition (along
+ * with its row in vessels by category table)</li>
+ * <li>configure services with the new number of global shards only</li>
+ * </ol>
+ * Rows are moved with the write time of their latest column, so that concurrent writes of services win over moves, and
+ * runs are idempotent. Moves are logged batches, one per vessel, with a bounded number of batches in flight.
+ */
+public final class VisibilityResharder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VisibilityResharder.class);
+
+    /**
+     * Default number of rows fetched per page.
+     */
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Default maximum number of moves in flight.
+     */
+    private static final int DEFAULT_MAX_MOVES_IN_FLIGHT = 32;
+
+    private final Session session;
+    private final VisibilityKeys keys;
+    private final int fetchSize;
+    private final int maxMovesInFlight;
+
+    /**
+     * Constructor.
+     *
+     * @param session          session
+     * @param keys             visibility keys, with former number of shards
+     * @param fetchSize        number of rows fetched per page
+     * @param maxMovesInFlight maximum number of moves in flight
+     */
+    private VisibilityResharder(final Session session, final VisibilityKeys keys, final int fetchSize,
+                                final int maxMovesInFlight) {
+        this.session = session;
+        this.keys = keys;
+        this.fetchSize = fetchSize;
+        this.maxMovesInFlight = maxMovesInFlight;
+    }
+
+    /**
+     * Initialize resharding from input former number of global shards to input number of global shards.
+     *
+     * @param session      session
+     * @param formerShards former number of global shards
+     * @param shards       new number of global shards
+     * @return new instance
+     */
+    public static VisibilityResharder of(final Session session, final int formerShards, final int shards) {
+        checkArgument(formerShards > 0, "Former number of global shards must be positive");
+        return new VisibilityResharder(session, VisibilityKeys.of(shards, formerShards), DEFAULT_FETCH_SIZE,
+                DEFAULT_MAX_MOVES_IN_FLIGHT);
+    }
+
+    /**
+     * Move all misplaced vessels to their shard, and wait for completion.
+     *
+     * @return number of moved vessels
+     * @throws IllegalStateException if some vessels could not be moved (tool is to be run again)
+     */
+    public long reshard() {
+        final PreparedStatement select = this.session.prepare(selectForCopy()
+                .where(eq("visibility", bindMarker())));
+        final PreparedStatement insert = this.session.prepare(copyInto("vessels"));
+        final PreparedStatement delete = this.session.prepare(delete()
+                .from("vessels")
+                .using(timestamp(bindMarker()))
+                .where(eq("visibility", bindMarker()))
+                .and(eq("uuid", bindMarker())));
+        final PreparedStatement insertByCategory = this.session.prepare(copyInto("vessels_by_category"));
+        final PreparedStatement deleteByCategory = this.session.prepare(delete()
+                .from("vessels_by_category")
+                .using(timestamp(bindMarker()))
+                .where(eq("visibility", bindMarker()))
+                .and(eq("category", bindMarker()))
+                .and(eq("uuid", bindMarker())));
+        final Semaphore inFlight = new Semaphore(this.maxMovesInFlight);
+        final AtomicLong moves = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        for (final String visibility : this.keys.getGlobalKeys()) {
+            LOGGER.debug("Reshard vessels of partition {}", visibility);
+            final ResultSet rows = this.session.execute(select.bind(visibility)
+                    .setFetchSize(this.fetchSize)
+                    .setIdempotent(true));
+            for (final Row row : rows) {
+                final UUID uuid = row.getUUID("uuid");
+                final String target = this.keys.getGlobalKey(uuid);
+                if (!target.equals(visibility) && !row.isNull("vessel")) { // Rows without vessel are left over
+                    final BatchStatement move = new BatchStatement()
+                            .add(bindCopy(insert.bind(), row, target))
+                            .add(delete.bind(getWriteTime(row), visibility, uuid))
+                            .add(bindCopy(insertByCategory.bind(), row, target))
+                            .add(deleteByCategory.bind(getWriteTime(row), visibility, row.getString("category"), uuid));
+                    inFlight.acquireUninterruptibly();
+                    moves.incrementAndGet();
+                    CompletableFutures.toCompletableFuture(this.session.executeAsync(move.setIdempotent(true)))
+                            .whenComplete((result, failure) -> {
+                                if (failure != null) {
+                                    LOGGER.warn("Failed to move vessel {} from partition {}", uuid, visibility, failure);
+                                    failures.incrementAndGet();
+                                }
+                                inFlight.release();
+                            });
+                }
+            }
+        }
+        inFlight.acquireUninterruptibly(this.maxMovesInFlight); // Wait for moves in flight
+        if (failures.get() > 0L) {
+            throw new IllegalStateException(String.format("Failed to move %d of %d vessel(s)", failures.get(), moves.get()));
+        }
+        LOGGER.debug("Moved {} vessel(s)", moves.get());
+        return moves.get();
+    }
+
+    /**
+     * Get query that selects rows of vessels table, with the write times that copies are written with.
+     *
+     * @return select query
+     */
+    static Select selectForCopy() {
+        return select()
+                .column("visibility")
+                .column("uuid")
+                .column("vessel")
+                .column("name")
+                .column("category")
+                .column("last_departure_port")
+                .column("last_departure_time")
+                .writeTime("vessel")
+                .writeTime("last_departure_time")
+                .from("vessels");
+    }
+
+    /**
+     * Get query that writes a copy of a row of vessels table into input table, with an explicit write time.
+     * <p>
+     * Parameters: visibility key, UUID, vessel, name, category, last departure port, last departure time, write time.
+     *
+     * @param table vessels table, or vessels by category table (which holds the same columns)
+     * @return insert query
+     */
+    static RegularStatement copyInto(final String table) {
+        return insertInto(table)
+                .value("visibility", bindMarker())
+                .value("uuid", bindMarker())
+                .value("vessel", bindMarker())
+                .value("name", bindMarker())
+                .value("category", bindMarker())
+                .value("last_departure_port", bindMarker())
+                .value("last_departure_time", bindMarker())
+                .using(timestamp(bindMarker()));
+    }
+
+    /**
+     * Bind copy of input row into input partition of vessels table (or of vessels by category table, which holds the
+     * same columns).
+     *
+     * @param statement  insert statement, with columns in the order of vessels table
+     * @param row        row, with write times
+     * @param visibility visibility key of the copy
+     * @return bound statement
+     */
+    static BoundStatement bindCopy(final BoundStatement statement, final Row row, final String visibility) {
+        statement.setString(0, visibility)
+                .setUUID(1, row.getUUID("uuid"))
+                .setBytesUnsafe(2, row.getBytesUnsafe("vessel"))
+                .setString(3, row.getString("name"))
+                .setString(4, row.getString("category"))
+                .setLong(7, getWriteTime(row));
+        if (!row.isNull("last_departure_time")) { // Unset rather than null, so that no tombstone is written
+            statement.setString(5, row.getString("last_departure_port"))
+                    .setTimestamp(6, row.getTimestamp("last_departure_time"));
+        }
+        return statement;
+    }
+
+    /**
+     * Get write time of the latest column of input row.
+     *
+     * @param row row, with write times of vessel and last departure columns
+     * @return write time, in microseconds
+     */
+    static long getWriteTime(final Row row) {
+        return row.isNull("writetime(last_departure_time)")
+                ? row.getLong("writetime(vessel)")
+                : Math.max(row.getLong("writetime(vessel)"), row.getLong("writetime(last_departure_time)"));
+    }
+
+}
@@ -7,14 +7,18 @@ import com.datastax.driver.mapping.annotations.Table;
 import test.sdc.cassandra.model.udt.VesselUdt;
 import test.sdc.model.Vessel;
 
-import java.util.Date;
-import java.util.Objects;
-import java.util.UUID;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Get list of vessels that departed recently from a selected port.
+ * <p>
+ * Rows of a port are partitioned by hour of departure time, so that partitions remain small however busy the port is,
+ * and expired rows are dropped with whole partitions.
  */
 @Table(keyspace = "vessel",
         name = "vessels_by_departure_port",
@@ -22,9 +26,17 @@ import static com.google.common.base.Preconditions.checkArgument;
         writeConsistency = "LOCAL_QUORUM")
 public final class VesselsByDeparturePortTable {
 
+    /**
+     * Time range covered by a partition.
+     */
+    private static final Duration BUCKET_DURATION = Duration.ofHours(1L);
+
     @PartitionKey
     @Column(name = "last_departure_port")
     private String lastDeparturePort;
+    @PartitionKey(1)
+    @Column(name = "departure_bucket")
+    private Date departureBucket;
 
     @ClusteringColumn
     @Column(name = "last_departure_time")
@@ -55,10 +67,37 @@ public final class VesselsByDeparturePortTable {
         inputObject.getLastDeparture().ifPresent(lastDeparture -> {
             res.lastDeparturePort = lastDeparture.getDeparturePort().getUuid();
             res.lastDepartureTime = Date.from(lastDeparture.getDepartureTime());
+            res.departureBucket = getDepartureBucket(lastDeparture.getDepartureTime());
         });
         return res;
     }
 
+    /**
+     * Get departure bucket (partition key component) of input departure time.
+     *
+     * @param departureTime departure time
+     * @return start of the time range of the partition
+     */
+    public static Date getDepartureBucket(final Instant departureTime) {
+        return Date.from(departureTime.truncatedTo(ChronoUnit.HOURS));
+    }
+
+    /**
+     * Get departure buckets that cover input time range, from the most recent one.
+     *
+     * @param since start of time range
+     * @param until end of time range
+     * @return departure buckets, from the most recent one
+     */
+    public static List<Date> getDepartureBuckets(final Instant since, final Instant until) {
+        final List<Date> res = new ArrayList<>();
+        final Instant first = since.truncatedTo(ChronoUnit.HOURS);
+        for (Instant bucket = until.truncatedTo(ChronoUnit.HOURS); !bucket.isBefore(first); bucket = bucket.minus(BUCKET_DURATION)) {
+            res.add(Date.from(bucket));
+        }
+        return res;
+    }
+
     /**
      * Map current object into domain data model.
      *
@@ -122,6 +161,24 @@ public final class VesselsByDeparturePortTable {
         this.lastDeparturePort = lastDeparturePort;
     }
 
+    /**
+     * Get departure bucket.
+     *
+     * @return departure bucket
+     */
+    public Date getDepartureBucket() {
+        return departureBucket;
+    }
+
+    /**
+     * Set departure bucket.
+     *
+     * @param departureBucket departure bucket
+     */
+    protected void setDepartureBucket(Date departureBucket) {
+        this.departureBucket = departureBucket;
+    }
+
     /**
      * Get last departure time.
      *
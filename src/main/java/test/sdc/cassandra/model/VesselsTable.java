@@ -26,7 +26,7 @@ public final class VesselsTable {
 
     private VesselUdt vessel;
     private String name; // Used to create secondary index
-    private String category; // Used to create materialized view
+    private String category; // Partitioning key of vessels by category table
 
     /**
      * Default constructor.
@@ -37,26 +37,19 @@ public final class VesselsTable {
     /**
      * Map input domain data model object into new object.
      *
-     * @param uuid        UUID
-     * @param inputObject domain data model object
+     * @param uuid          UUID
+     * @param inputObject   domain data model object
+     * @param visibilityKey key of the partition that the vessel belongs to, as computed by vessel services (which may
+     *                      shard vessels with global visibility)
      * @return new object
      */
-    public static VesselsTable from(final UUID uuid, final Vessel inputObject) {
+    public static VesselsTable from(final UUID uuid, final Vessel inputObject, final String visibilityKey) {
         final VesselsTable res = new VesselsTable();
         res.uuid = uuid;
         res.vessel = VesselUdt.from(inputObject);
         res.name = inputObject.getName();
         res.category = inputObject.getCategory().getUuid();
-        switch (inputObject.getVisibility()) {
-            case ALL_CENTERS:
-                res.visibility = getGlobalVisibilityKey();
-                break;
-            case CREATION_CENTER_ONLY:
-                res.visibility = inputObject.getCreationCenter().getUuid();
-                break;
-            default:
-                throw new IllegalStateException("Unexpected vessel visibility: " + inputObject.getVisibility());
-        }
+        res.visibility = visibilityKey;
         return res;
     }
 
@@ -1,53 +1,60 @@
 package test.sdc.model;
 
 import java.io.Serializable;
-import java.util.Objects;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Reference to a port.
+ * <p>
+ * Instances are interned in a bounded pool: they are immutable, and their hash code is computed once.
  */
 public final class PortReference
         implements Serializable {
 
-    private String uuid;
+    private static final long serialVersionUID = 1L;
+    private static final ReferencePool<PortReference> POOL = new ReferencePool<>(10_000L, PortReference::new);
+
+    private final String uuid;
+    private final transient int hash;
 
     /**
      * Private constructor.
+     *
+     * @param uuid UUID
      */
-    private PortReference() {
+    private PortReference(final String uuid) {
+        this.uuid = uuid;
+        this.hash = uuid.hashCode();
     }
 
     /**
-     * Initialize instance from input UUID.
+     * Get instance with input UUID.
      *
      * @param uuid UUID
-     * @return new instance
+     * @return interned instance
      */
     public static PortReference of(final String uuid) {
         requireNonNull(uuid, "UUID is mandatory");
-        final PortReference instance = new PortReference();
-        instance.setUuid(uuid);
-        return instance;
+        return POOL.intern(uuid);
     }
 
     /**
-     * Get UUID.
+     * Replace deserialized instance with interned instance.
      *
-     * @return UUID
+     * @return interned instance
      */
-    public String getUuid() {
-        return this.uuid;
+    private Object readResolve() {
+        return of(this.uuid);
     }
 
     /**
-     * Set UUID.
+     * Get UUID.
      *
-     * @param uuid UUID
+     * @return UUID
      */
-    private void setUuid(final String uuid) {
-        this.uuid = uuid;
+    public String getUuid() {
+        return this.uuid;
     }
 
     /**
@@ -55,8 +62,10 @@ public final class PortReference
      */
     @Override
     public boolean equals(final Object other) {
-        return other instanceof PortReference
-                && Objects.equals(this.uuid, ((PortReference) other).uuid);
+        return this == other
+                || other instanceof PortReference
+                && this.hash == ((PortReference) other).hash
+                && this.uuid.equals(((PortReference) other).uuid);
     }
 
     /**
@@ -64,7 +73,7 @@ public final class PortReference
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.uuid);
+        return this.hash;
     }
 
     /**
@@ -0,0 +1,48 @@
+package test.sdc.model;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bounded and concurrent pool of interned references, by UUID.
+ * <p>
+ * There are few distinct centers, ports and categories, so that references decoded from rows are shared rather than
+ * duplicated in every vessel. The pool is bounded so that unexpected identifiers cannot exhaust memory: when it is
+ * full, least recently used references are evicted, and may then coexist with new instances of the same UUID (which
+ * are still equal).
+ *
+ * @param <T> reference type
+ */
+final class ReferencePool<T> {
+
+    private final LoadingCache<String, T> references;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize maximum number of interned references
+     * @param factory     factory of new references, from UUID
+     */
+    ReferencePool(final long maximumSize, final Function<String, T> factory) {
+        checkArgument(maximumSize > 0L, "Maximum size must be positive");
+        this.references = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build(CacheLoader.from(factory::apply));
+    }
+
+    /**
+     * Get interned reference with input UUID, which is created if needed.
+     *
+     * @param uuid UUID
+     * @return reference
+     */
+    T intern(final String uuid) {
+        return this.references.getUnchecked(uuid);
+    }
+
+}
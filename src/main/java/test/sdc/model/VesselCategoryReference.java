@@ -1,53 +1,60 @@
 package test.sdc.model;
 
 import java.io.Serializable;
-import java.util.Objects;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Reference to a vessel category.
+ * <p>
+ * Instances are interned in a bounded pool: they are immutable, and their hash code is computed once.
  */
 public final class VesselCategoryReference
         implements Serializable {
 
-    private String uuid;
+    private static final long serialVersionUID = 1L;
+    private static final ReferencePool<VesselCategoryReference> POOL = new ReferencePool<>(1_000L, VesselCategoryReference::new);
+
+    private final String uuid;
+    private final transient int hash;
 
     /**
      * Private constructor.
+     *
+     * @param uuid UUID
      */
-    private VesselCategoryReference() {
+    private VesselCategoryReference(final String uuid) {
+        this.uuid = uuid;
+        this.hash = uuid.hashCode();
     }
 
     /**
-     * Initialize instance from input UUID.
+     * Get instance with input UUID.
      *
      * @param uuid UUID
-     * @return new instance
+     * @return interned instance
      */
     public static VesselCategoryReference of(final String uuid) {
         requireNonNull(uuid, "UUID is mandatory");
-        final VesselCategoryReference instance = new VesselCategoryReference();
-        instance.setUuid(uuid);
-        return instance;
+        return POOL.intern(uuid);
     }
 
     /**
-     * Get UUID.
+     * Replace deserialized instance with interned instance.
      *
-     * @return UUID
+     * @return interned instance
      */
-    public String getUuid() {
-        return this.uuid;
+    private Object readResolve() {
+        return of(this.uuid);
     }
 
     /**
-     * Set UUID.
+     * Get UUID.
      *
-     * @param uuid UUID
+     * @return UUID
      */
-    private void setUuid(final String uuid) {
-        this.uuid = uuid;
+    public String getUuid() {
+        return this.uuid;
     }
 
     /**
@@ -55,8 +62,10 @@ public final class VesselCategoryReference
      */
     @Override
     public boolean equals(final Object other) {
-        return other instanceof VesselCategoryReference
-                && Objects.equals(this.uuid, ((VesselCategoryReference) other).uuid);
+        return this == other
+                || other instanceof VesselCategoryReference
+                && this.hash == ((VesselCategoryReference) other).hash
+                && this.uuid.equals(((VesselCategoryReference) other).uuid);
     }
 
     /**
@@ -64,7 +73,7 @@ public final class VesselCategoryReference
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.uuid);
+        return this.hash;
     }
 
     /**
@@ -0,0 +1,105 @@
+package test.sdc.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Page of vessels, with the token to be used to get next page.
+ */
+public final class VesselPage
+        implements Serializable {
+
+    private List<Vessel> vessels;
+    private String nextPageToken;
+
+    /**
+     * Private constructor.
+     */
+    private VesselPage() {
+    }
+
+    /**
+     * Initialize instance from input vessels and next page token.
+     *
+     * @param vessels       vessels
+     * @param nextPageToken token to be used to get next page, or null if current page is the last one
+     * @return new instance
+     */
+    public static VesselPage of(final List<Vessel> vessels, final String nextPageToken) {
+        requireNonNull(vessels, "Vessels are mandatory");
+        final VesselPage instance = new VesselPage();
+        instance.setVessels(Collections.unmodifiableList(new ArrayList<>(vessels)));
+        instance.setNextPageToken(nextPageToken);
+        return instance;
+    }
+
+    /**
+     * Get vessels.
+     *
+     * @return vessels
+     */
+    public List<Vessel> getVessels() {
+        return this.vessels;
+    }
+
+    /**
+     * Set vessels.
+     *
+     * @param vessels vessels
+     */
+    private void setVessels(final List<Vessel> vessels) {
+        this.vessels = vessels;
+    }
+
+    /**
+     * Get opaque token to be used to get next page.
+     *
+     * @return token to be used to get next page, if any
+     */
+    public Optional<String> getNextPageToken() {
+        return Optional.ofNullable(this.nextPageToken);
+    }
+
+    /**
+     * Set token to be used to get next page.
+     *
+     * @param nextPageToken token to be used to get next page
+     */
+    private void setNextPageToken(final String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof VesselPage
+                && Objects.equals(this.vessels, ((VesselPage) other).vessels)
+                && Objects.equals(this.nextPageToken, ((VesselPage) other).nextPageToken);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.vessels, this.nextPageToken);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%d vessel(s), %s",
+                this.vessels.size(), this.nextPageToken == null ? "last page" : "more to come");
+    }
+
+}
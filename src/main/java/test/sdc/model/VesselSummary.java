@@ -0,0 +1,112 @@
+package test.sdc.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Vessel summary, as displayed in lists: UUID, name and category only.
+ */
+public final class VesselSummary
+        implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String uuid;
+    private final String name;
+    private final VesselCategoryReference category;
+
+    /**
+     * Private constructor.
+     *
+     * @param uuid     UUID
+     * @param name     name
+     * @param category vessel category
+     */
+    private VesselSummary(final String uuid, final String name, final VesselCategoryReference category) {
+        this.uuid = uuid;
+        this.name = name;
+        this.category = category;
+    }
+
+    /**
+     * Initialize instance from input UUID, name and category.
+     *
+     * @param uuid     UUID
+     * @param name     name
+     * @param category vessel category
+     * @return new instance
+     */
+    public static VesselSummary of(final String uuid, final String name, final VesselCategoryReference category) {
+        requireNonNull(uuid, "UUID is mandatory");
+        requireNonNull(name, "Name is mandatory");
+        requireNonNull(category, "Category is mandatory");
+        return new VesselSummary(uuid, name, category);
+    }
+
+    /**
+     * Initialize instance from input vessel.
+     *
+     * @param vessel vessel
+     * @return new instance
+     */
+    public static VesselSummary from(final Vessel vessel) {
+        return of(vessel.getUuid(), vessel.getName(), vessel.getCategory());
+    }
+
+    /**
+     * Get UUID.
+     *
+     * @return UUID
+     */
+    public String getUuid() {
+        return this.uuid;
+    }
+
+    /**
+     * Get name.
+     *
+     * @return name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get vessel category.
+     *
+     * @return vessel category
+     */
+    public VesselCategoryReference getCategory() {
+        return this.category;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof VesselSummary
+                && Objects.equals(this.uuid, ((VesselSummary) other).uuid)
+                && Objects.equals(this.name, ((VesselSummary) other).name)
+                && Objects.equals(this.category, ((VesselSummary) other).category);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.uuid, this.name, this.category);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%s (#%s, %s)", this.name, this.uuid, this.category);
+    }
+
+}
@@ -1,10 +1,14 @@
 package test.sdc.cassandra;
 
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.ResultSet;
 import org.assertj.core.api.SoftAssertions;
 import org.cassandraunit.CassandraCQLUnit;
 import org.cassandraunit.dataset.cql.ClassPathCQLDataSet;
+import org.apache.cassandra.service.StorageService;
 import org.cassandraunit.utils.EmbeddedCassandraServerHelper;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -12,12 +16,23 @@ import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import test.sdc.model.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static test.sdc.model.VisibilityType.ALL_CENTERS;
 import static test.sdc.model.VisibilityType.CREATION_CENTER_ONLY;
 
@@ -42,6 +57,11 @@ public class VesselServiceIT {
         this.service.postConstruct();
     }
 
+    @After
+    public void dispose() {
+        this.service.preDestroy();
+    }
+
     @Test
     public void should_add_vessel() {
         final String[] tables = {"vessels", "vessels_by_uuid"};
@@ -90,6 +110,40 @@ public class VesselServiceIT {
         softly.assertAll();
     }
 
+    @Test
+    public void should_add_vessels_in_bulk() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final List<Vessel> inputVessels = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            inputVessels.add(initVessel("Global " + i, ALL_CENTERS, localCenter).build());
+            inputVessels.add(initVessel("Local " + i, CREATION_CENTER_ONLY, localCenter).build());
+        }
+
+        final Map<Vessel, Throwable> failures = this.service.addAll(inputVessels);
+
+        assertThat(failures).isEmpty();
+        assertThat(this.service.findAll(localCenter))
+                .extracting(Vessel::getName)
+                .containsOnlyElementsOf(inputVessels.stream().map(Vessel::getName).collect(Collectors.toList()))
+                .hasSameSizeAs(inputVessels);
+    }
+
+    @Test
+    public void should_update_vessels_in_bulk() {
+        final PortReference port = PortReference.of("Le Havre");
+        final List<Vessel> inputVessels = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            inputVessels.add(initVesselWithDeparture("Vessel " + i, port, Instant.now().minusSeconds(i)));
+        }
+
+        final Map<Vessel, Throwable> failures = this.service.updateAll(inputVessels);
+
+        assertThat(failures).isEmpty();
+        assertThat(this.service.findByDeparturePort(port)).containsOnlyElementsOf(inputVessels)
+                .hasSameSizeAs(inputVessels);
+        assertThat(this.service.find(inputVessels.get(0).getUuid())).contains(inputVessels.get(0));
+    }
+
     @Test
     public void should_update_vessel() {
         final Vessel formerVessel = Vessel.newInstance()
@@ -155,6 +209,461 @@ public class VesselServiceIT {
                 .doesNotContain(hiddenVessel);
     }
 
+    @Test
+    public void should_delete_stale_rows_on_update() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final PortReference formerPort = PortReference.of("Le Havre");
+        final PortReference newPort = PortReference.of("Katmandu");
+        final Vessel formerVessel = initVesselWithDeparture("Vessel_1", formerPort, Instant.now().minusSeconds(60));
+        this.service.update(formerVessel);
+        this.service.findAll(CenterReference.of("456"));
+        final Vessel updatedVessel = Vessel.fromUuid(formerVessel.getUuid())
+                .withName("Vessel_1")
+                .withCategory("Cargo")
+                .withVisibility(CREATION_CENTER_ONLY)
+                .withCreationCenter(localCenter)
+                .withDeparture(newPort, Instant.now())
+                .build();
+
+        this.service.update(updatedVessel);
+
+        assertThat(this.service.findAll(CenterReference.of("456"))).isEmpty();
+        assertThat(this.service.findAll(localCenter)).containsExactly(updatedVessel);
+        assertThat(this.service.findByDeparturePort(formerPort)).isEmpty();
+        assertThat(this.service.findByDeparturePort(newPort)).containsExactly(updatedVessel);
+    }
+
+    @Test
+    public void should_record_departure_without_rewriting_vessel() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final PortReference formerPort = PortReference.of("Le Havre");
+        final PortReference newPort = PortReference.of("Katmandu");
+        final Vessel testVessel = initVessel("Vessel_1", CREATION_CENTER_ONLY, localCenter).build();
+        this.service.update(testVessel);
+        this.service.recordDeparture(testVessel.getUuid(), formerPort, Instant.now().minusSeconds(60));
+        final Instant departureTime = Instant.ofEpochMilli(Instant.now().toEpochMilli());
+
+        this.service.recordDeparture(testVessel.getUuid(), newPort, departureTime);
+
+        final Vessel expected = Vessel.fromUuid(testVessel.getUuid())
+                .withName("Vessel_1")
+                .withCategory("Cargo")
+                .withVisibility(CREATION_CENTER_ONLY)
+                .withCreationCenter(localCenter)
+                .withDeparture(newPort, departureTime)
+                .build();
+        this.service.setVesselCacheEnabled(false);
+        this.service.preDestroy();
+        this.service.postConstruct();
+        assertThat(this.service.find(testVessel.getUuid())).contains(expected);
+        assertThat(this.service.findAll(localCenter)).containsExactly(expected);
+        assertThat(this.service.findByCategory(localCenter, VesselCategoryReference.of("Cargo"))).containsExactly(expected);
+        assertThat(this.service.findByDeparturePort(formerPort)).isEmpty();
+        assertThat(this.service.findByDeparturePort(newPort)).containsExactly(expected);
+        assertThat(cqlUnit.session.execute("SELECT vessel.last_departure_port FROM vessels_by_uuid").one().isNull(0))
+                .isTrue();
+    }
+
+    @Test
+    public void should_clear_recorded_departure_on_update() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final PortReference port = PortReference.of("Le Havre");
+        final Vessel testVessel = initVessel("Vessel_1", CREATION_CENTER_ONLY, localCenter).build();
+        this.service.update(testVessel);
+        this.service.recordDeparture(testVessel.getUuid(), port, Instant.now());
+
+        this.service.update(testVessel);
+
+        assertThat(this.service.find(testVessel.getUuid())).contains(testVessel);
+        assertThat(this.service.findAll(localCenter)).containsExactly(testVessel);
+        assertThat(this.service.findByCategory(localCenter, VesselCategoryReference.of("Cargo"))).containsExactly(testVessel);
+        assertThat(this.service.findByDeparturePort(port)).isEmpty();
+    }
+
+    @Test
+    public void should_not_write_unchanged_vessel_on_update() {
+        final MetricRegistry registry = new MetricRegistry();
+        this.service.preDestroy();
+        this.service.setMetricRegistry(registry);
+        this.service.postConstruct();
+        final Vessel testVessel = initVessel("Local", CREATION_CENTER_ONLY, CenterReference.of("123")).build();
+        this.service.update(testVessel);
+
+        this.service.update(testVessel);
+
+        final String prefix = MetricRegistry.name(VesselService.class);
+        assertThat(registry.timer(prefix + ".update.latency").getCount()).isEqualTo(2L);
+        assertThat(registry.timer(prefix + ".update.round-trip").getCount()).isEqualTo(3L); // 2 reads, 1 write
+    }
+
+    @Test
+    public void should_use_cached_prior_state_on_update_if_enabled() {
+        final MetricRegistry registry = new MetricRegistry();
+        this.service.preDestroy();
+        this.service.setMetricRegistry(registry);
+        this.service.setVesselCacheEnabled(true);
+        this.service.setCachedPriorStateEnabled(true);
+        this.service.postConstruct();
+        final Vessel testVessel = initVessel("Local", CREATION_CENTER_ONLY, CenterReference.of("123")).build();
+        this.service.update(testVessel);
+
+        this.service.update(testVessel);
+
+        final String prefix = MetricRegistry.name(VesselService.class);
+        assertThat(registry.timer(prefix + ".update.latency").getCount()).isEqualTo(2L);
+        assertThat(registry.timer(prefix + ".update.round-trip").getCount()).isEqualTo(2L); // 1 read, 1 write
+    }
+
+    @Test
+    public void should_share_references_between_decoded_vessels() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final PortReference port = PortReference.of("Le Havre");
+        this.service.updateAll(Arrays.asList(
+                initVesselWithDeparture("Vessel_1", port, Instant.now().minusSeconds(60)),
+                initVesselWithDeparture("Vessel_2", port, Instant.now().minusSeconds(120))));
+
+        final List<Vessel> actual = this.service.findAll(localCenter);
+
+        assertThat(actual).hasSize(2);
+        for (final Vessel vessel : actual) {
+            assertThat(vessel.getCreationCenter()).isSameAs(localCenter);
+            assertThat(vessel.getCategory()).isSameAs(VesselCategoryReference.of("Cargo"));
+            assertThat(vessel.getLastDeparture().get().getDeparturePort()).isSameAs(port);
+        }
+    }
+
+    @Test
+    public void should_expose_vessels_after_schema_change() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final Vessel localVessel = initVessel("Local", CREATION_CENTER_ONLY, localCenter).build();
+        final VesselCategoryReference category = VesselCategoryReference.of("Cargo");
+        this.service.update(localVessel);
+        this.service.findByCategory(localCenter, category);
+        EmbeddedCassandraServerHelper.getSession().execute("ALTER TABLE vessels ADD comment text");
+
+        final List<Vessel> actual = this.service.findByCategory(localCenter, category);
+
+        assertThat(actual).containsExactly(localVessel);
+    }
+
+    @Test
+    public void should_update_and_find_vessel_asynchronously() {
+        final CenterReference otherCenter = CenterReference.of("123");
+        final Vessel testVessel = initVessel("Hidden", CREATION_CENTER_ONLY, otherCenter).build();
+
+        final Optional<Vessel> actual = this.service.updateAsync(testVessel)
+                .thenCompose(done -> this.service.findAsync(testVessel.getUuid()))
+                .join();
+
+        assertThat(actual).contains(testVessel);
+    }
+
+    @Test
+    public void should_remove_vessel_asynchronously() {
+        final Vessel formerVessel = initVessel("Le_Name", ALL_CENTERS, CenterReference.of("123")).build();
+        this.service.update(formerVessel);
+
+        this.service.removeAsync(formerVessel.getUuid()).join();
+
+        final Optional<Vessel> actual = this.service.find(formerVessel.getUuid());
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    public void should_remove_known_vessel_in_a_single_round_trip() {
+        final MetricRegistry registry = new MetricRegistry();
+        this.service.preDestroy();
+        this.service.setMetricRegistry(registry);
+        this.service.setVesselCacheEnabled(false);
+        this.service.postConstruct();
+        final CenterReference localCenter = CenterReference.of("123");
+        final Vessel formerVessel = initVessel("Le_Name", CREATION_CENTER_ONLY, localCenter).build();
+        this.service.update(formerVessel);
+
+        this.service.remove(formerVessel);
+
+        assertThat(this.service.find(formerVessel.getUuid())).isEmpty();
+        assertThat(this.service.findAll(localCenter)).isEmpty();
+        final String prefix = MetricRegistry.name(VesselService.class);
+        assertThat(registry.timer(prefix + ".remove.round-trip").getCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void should_remove_vessels_in_bulk() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final List<Vessel> formerVessels = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            formerVessels.add(initVessel("Vessel " + i, i % 2 == 0 ? ALL_CENTERS : CREATION_CENTER_ONLY, localCenter).build());
+        }
+        this.service.updateAll(formerVessels);
+        final List<String> uuids = formerVessels.stream().map(Vessel::getUuid).collect(Collectors.toList());
+        uuids.add(UUID.randomUUID().toString());
+        uuids.add("not-a-uuid");
+
+        final Map<String, Throwable> failures = this.service.removeAll(uuids);
+
+        assertThat(failures).containsOnlyKeys("not-a-uuid");
+        assertThat(this.service.findAll(localCenter)).isEmpty();
+    }
+
+    @Test
+    public void should_read_prior_state_on_remove_if_cached_prior_state_is_disabled() {
+        this.service.preDestroy();
+        this.service.setCachedPriorStateEnabled(false);
+        this.service.postConstruct();
+        final CenterReference localCenter = CenterReference.of("123");
+        final Vessel formerVessel = initVessel("Le_Name", ALL_CENTERS, localCenter).build();
+        this.service.update(formerVessel);
+        final Vessel otherVessel = Vessel.fromUuid(formerVessel.getUuid())
+                .withName("Le_Name")
+                .withCategory("Cargo")
+                .withVisibility(CREATION_CENTER_ONLY)
+                .withCreationCenter(localCenter)
+                .build();
+        this.service.find(formerVessel.getUuid());
+        cqlUnit.session.execute("DELETE FROM vessels WHERE visibility = '_ALL' AND uuid = " + formerVessel.getUuid());
+        cqlUnit.session.execute("UPDATE vessels_by_uuid SET vessel = {name: 'Le_Name', category: 'Cargo', "
+                + "visibility: 'CREATION_CENTER_ONLY', creation_center: '123'} WHERE uuid = " + formerVessel.getUuid());
+        cqlUnit.session.execute("INSERT INTO vessels (visibility, uuid, vessel, name, category) VALUES ('123', "
+                + formerVessel.getUuid() + ", {name: 'Le_Name', category: 'Cargo', visibility: 'CREATION_CENTER_ONLY', "
+                + "creation_center: '123'}, 'Le_Name', 'Cargo')");
+        assertThat(this.service.findAll(localCenter)).containsExactly(otherVessel);
+
+        this.service.remove(formerVessel.getUuid());
+
+        assertThat(this.service.findAll(localCenter)).isEmpty();
+    }
+
+    @Test
+    public void should_expose_vessels_depending_on_visibility_asynchronously() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final CenterReference otherCenter = CenterReference.of("456");
+        final Vessel globalVessel = initVessel("Global ENT", ALL_CENTERS, otherCenter).build();
+        final Vessel localVessel = initVessel("Local ENT", CREATION_CENTER_ONLY, localCenter).build();
+        final Vessel hiddenVessel = initVessel("Hidden ENT", CREATION_CENTER_ONLY, otherCenter).build();
+        for (final Vessel vessel : new Vessel[]{globalVessel, localVessel, hiddenVessel}) {
+            this.service.update(vessel);
+        }
+
+        final List<Vessel> all = this.service.findAllAsync(localCenter).join();
+        final List<Vessel> byName = this.service.findByNameFragmentAsync(localCenter, "ENT").join();
+        final List<Vessel> byCategory = this.service.findByCategoryAsync(localCenter, VesselCategoryReference.of("Cargo")).join();
+
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(all).containsOnly(globalVessel, localVessel);
+        softly.assertThat(byName).containsOnly(globalVessel, localVessel);
+        softly.assertThat(byCategory).containsOnly(globalVessel, localVessel);
+        softly.assertAll();
+    }
+
+    @Test
+    public void should_spread_global_vessels_over_shards() {
+        this.service.preDestroy();
+        this.service.setGlobalVisibilityShards(4);
+        this.service.postConstruct();
+        final CenterReference localCenter = CenterReference.of("123");
+        final List<Vessel> visibleVessels = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            visibleVessels.add(initVessel("Global ENT " + i, ALL_CENTERS, localCenter).build());
+        }
+        visibleVessels.add(initVessel("Local ENT", CREATION_CENTER_ONLY, localCenter).build());
+        visibleVessels.forEach(this.service::update);
+
+        final List<Vessel> all = this.service.findAll(localCenter);
+        final List<Vessel> byName = this.service.findByNameFragment(localCenter, "ENT");
+        final List<Vessel> byCategory = this.service.findByCategory(localCenter, VesselCategoryReference.of("Cargo"));
+        final List<Vessel> streamed = this.service.streamAll(localCenter, 3).collect(Collectors.toList());
+
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(all).containsOnlyElementsOf(visibleVessels).hasSameSizeAs(visibleVessels);
+        softly.assertThat(byName).containsOnlyElementsOf(visibleVessels).hasSameSizeAs(visibleVessels);
+        softly.assertThat(byCategory).containsOnlyElementsOf(visibleVessels).hasSameSizeAs(visibleVessels);
+        softly.assertThat(streamed).containsOnlyElementsOf(visibleVessels).hasSameSizeAs(visibleVessels);
+        softly.assertThat(cqlUnit.session.execute("SELECT DISTINCT visibility FROM vessels").all().size())
+                .isGreaterThan(2);
+        softly.assertAll();
+    }
+
+    @Test
+    public void should_expose_vessels_once_while_resharding() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final List<Vessel> visibleVessels = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            visibleVessels.add(initVessel("Global " + i, ALL_CENTERS, localCenter).build());
+        }
+        visibleVessels.forEach(this.service::update);
+        this.service.preDestroy();
+        this.service.setGlobalVisibilityShards(4);
+        this.service.setFormerGlobalVisibilityShards(1);
+        this.service.postConstruct();
+        final Vessel updatedVessel = Vessel.fromUuid(visibleVessels.get(0).getUuid())
+                .withName("Updated")
+                .withCategory("Cargo")
+                .withVisibility(ALL_CENTERS)
+                .withCreationCenter(localCenter)
+                .build();
+        visibleVessels.set(0, updatedVessel);
+        this.service.update(updatedVessel);
+        assertThat(this.service.findAll(localCenter)).containsOnlyElementsOf(visibleVessels)
+                .hasSameSizeAs(visibleVessels);
+
+        final long moved = VisibilityResharder.of(cqlUnit.session, 1, 4).reshard();
+        this.service.preDestroy();
+        this.service.setFormerGlobalVisibilityShards(0);
+        this.service.postConstruct();
+
+        assertThat(moved).isPositive();
+        assertThat(VisibilityResharder.of(cqlUnit.session, 1, 4).reshard()).isZero();
+        assertThat(cqlUnit.session.execute("SELECT * FROM vessels").all()).hasSameSizeAs(visibleVessels);
+        assertThat(cqlUnit.session.execute("SELECT * FROM vessels_by_category").all()).hasSameSizeAs(visibleVessels);
+        assertThat(this.service.findAll(localCenter)).containsOnlyElementsOf(visibleVessels)
+                .hasSameSizeAs(visibleVessels);
+        assertThat(this.service.findByCategory(localCenter, VesselCategoryReference.of("Cargo")))
+                .containsOnlyElementsOf(visibleVessels)
+                .hasSameSizeAs(visibleVessels);
+    }
+
+    @Test
+    public void should_share_cached_global_partition_between_centers() {
+        this.service.preDestroy();
+        this.service.setVisibilityCacheEnabled(true);
+        this.service.postConstruct();
+        final CenterReference localCenter = CenterReference.of("123");
+        final CenterReference otherCenter = CenterReference.of("456");
+        final Vessel globalVessel = initVessel("Global", ALL_CENTERS, otherCenter).build();
+        final Vessel localVessel = initVessel("Local", CREATION_CENTER_ONLY, localCenter).build();
+        final Vessel otherVessel = initVessel("Other", CREATION_CENTER_ONLY, otherCenter).build();
+        for (final Vessel vessel : new Vessel[]{globalVessel, localVessel, otherVessel}) {
+            this.service.update(vessel);
+        }
+        final long hitCountBeforeOperation = this.service.getVisibilityCacheStats().hitCount();
+
+        final List<Vessel> actualForLocalCenter = this.service.findAll(localCenter);
+        final List<Vessel> actualForOtherCenter = this.service.findAll(otherCenter);
+
+        assertThat(actualForLocalCenter).containsOnly(globalVessel, localVessel);
+        assertThat(actualForOtherCenter).containsOnly(globalVessel, otherVessel);
+        assertThat(this.service.getVisibilityCacheStats().hitCount()).isEqualTo(hitCountBeforeOperation + 1);
+    }
+
+    @Test
+    public void should_invalidate_cached_partition_on_write() {
+        this.service.preDestroy();
+        this.service.setVisibilityCacheEnabled(true);
+        this.service.postConstruct();
+        final CenterReference localCenter = CenterReference.of("123");
+        final Vessel formerVessel = initVessel("Local", CREATION_CENTER_ONLY, localCenter).build();
+        final Vessel newVessel = initVessel("New", CREATION_CENTER_ONLY, localCenter).build();
+        this.service.update(formerVessel);
+        this.service.findAll(localCenter);
+
+        this.service.update(newVessel);
+        this.service.remove(formerVessel.getUuid());
+
+        assertThat(this.service.findAll(localCenter)).containsOnly(newVessel);
+    }
+
+    @Test
+    public void should_stream_vessels_depending_on_visibility() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final CenterReference otherCenter = CenterReference.of("456");
+        final List<Vessel> visibleVessels = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            visibleVessels.add(initVessel("Global " + i, ALL_CENTERS, otherCenter).build());
+            visibleVessels.add(initVessel("Local " + i, CREATION_CENTER_ONLY, localCenter).build());
+        }
+        final Vessel hiddenVessel = initVessel("Hidden", CREATION_CENTER_ONLY, otherCenter).build();
+        visibleVessels.forEach(this.service::update);
+        this.service.update(hiddenVessel);
+
+        final List<Vessel> actual = this.service.streamAll(localCenter, 3)
+                .collect(Collectors.toList());
+
+        assertThat(actual).containsOnlyElementsOf(visibleVessels)
+                .hasSameSizeAs(visibleVessels);
+    }
+
+    @Test
+    public void should_page_vessels_depending_on_visibility() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final CenterReference otherCenter = CenterReference.of("456");
+        final List<Vessel> visibleVessels = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            visibleVessels.add(initVessel("Global " + i, ALL_CENTERS, otherCenter).build());
+        }
+        visibleVessels.add(initVessel("Local", CREATION_CENTER_ONLY, localCenter).build());
+        final Vessel hiddenVessel = initVessel("Hidden", CREATION_CENTER_ONLY, otherCenter).build();
+        visibleVessels.forEach(this.service::update);
+        this.service.update(hiddenVessel);
+
+        final List<Vessel> actual = new ArrayList<>();
+        final List<Integer> pageSizes = new ArrayList<>();
+        VesselPage page = this.service.findAll(localCenter, 3, null);
+        actual.addAll(page.getVessels());
+        pageSizes.add(page.getVessels().size());
+        while (page.getNextPageToken().isPresent()) {
+            page = this.service.findAll(localCenter, 3, page.getNextPageToken().get());
+            actual.addAll(page.getVessels());
+            pageSizes.add(page.getVessels().size());
+        }
+
+        assertThat(actual).containsOnlyElementsOf(visibleVessels)
+                .hasSameSizeAs(visibleVessels);
+        assertThat(pageSizes).startsWith(3, 2);
+    }
+
+    @Test
+    public void should_find_vessel_by_UUID_from_cache_once_read() {
+        this.service.preDestroy();
+        this.service.setVesselCacheEnabled(true);
+        this.service.postConstruct();
+        final Vessel testVessel = initVessel("Hidden", CREATION_CENTER_ONLY, CenterReference.of("123")).build();
+        cqlUnit.session.execute("INSERT INTO vessels_by_uuid (uuid, vessel) VALUES (" + testVessel.getUuid()
+                + ", {name: 'Hidden', category: 'Cargo', visibility: 'CREATION_CENTER_ONLY', creation_center: '123'})");
+        final long hitCountBeforeOperation = this.service.getVesselCacheStats().hitCount();
+
+        final Optional<Vessel> firstRead = this.service.find(testVessel.getUuid());
+        final Optional<Vessel> secondRead = this.service.find(testVessel.getUuid());
+
+        assertThat(firstRead).contains(testVessel);
+        assertThat(secondRead).contains(testVessel);
+        assertThat(this.service.getVesselCacheStats().hitCount()).isEqualTo(hitCountBeforeOperation + 1);
+    }
+
+    @Test
+    public void should_refresh_cached_vessel_on_update() {
+        this.service.preDestroy();
+        this.service.setVesselCacheEnabled(true);
+        this.service.postConstruct();
+        final Vessel formerVessel = initVessel("Le_Name", ALL_CENTERS, CenterReference.of("123")).build();
+        this.service.update(formerVessel);
+        this.service.find(formerVessel.getUuid());
+        final Vessel inputVessel = Vessel.fromUuid(formerVessel.getUuid())
+                .withName("Le_Name_modified")
+                .withCategory("Cargo")
+                .withCreationCenter("123")
+                .build();
+
+        this.service.update(inputVessel);
+
+        assertThat(this.service.find(inputVessel.getUuid())).contains(inputVessel);
+    }
+
+    @Test
+    public void should_not_cache_vessels_if_cache_is_disabled() {
+        this.service.preDestroy();
+        this.service.setVesselCacheEnabled(false);
+        this.service.postConstruct();
+        final Vessel testVessel = initVessel("Hidden", CREATION_CENTER_ONLY, CenterReference.of("123")).build();
+        this.service.update(testVessel);
+
+        this.service.find(testVessel.getUuid());
+        final Optional<Vessel> actual = this.service.find(testVessel.getUuid());
+
+        assertThat(actual).contains(testVessel);
+        assertThat(this.service.getVesselCacheStats().requestCount()).isZero();
+    }
+
     @Test
     public void should_not_find_vessel_from_absent_UUID() {
         final String inputUuid = UUID.randomUUID().toString();
@@ -175,6 +684,67 @@ public class VesselServiceIT {
         assertThat(actual).contains(testVessel);
     }
 
+    @Test
+    public void should_record_metrics_of_vessel_operations() {
+        final MetricRegistry registry = new MetricRegistry();
+        this.service.preDestroy();
+        this.service.setMetricRegistry(registry);
+        this.service.setVesselCacheEnabled(false);
+        this.service.postConstruct();
+        final CenterReference center = CenterReference.of("123");
+        final Vessel testVessel = initVessel("Local", CREATION_CENTER_ONLY, center).build();
+        this.service.update(testVessel);
+
+        this.service.find(testVessel.getUuid());
+        this.service.findAll(center);
+        this.service.remove(testVessel.getUuid());
+        final Throwable failure = catchThrowable(() -> this.service.find("not-a-uuid"));
+
+        assertThat(failure).isInstanceOf(IllegalArgumentException.class);
+        final String prefix = MetricRegistry.name(VesselService.class);
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(registry.timer(prefix + ".update.latency").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.timer(prefix + ".update.round-trip").getCount()).isEqualTo(2L);
+        softly.assertThat(registry.timer(prefix + ".find.latency").getCount()).isEqualTo(2L);
+        softly.assertThat(registry.timer(prefix + ".find.round-trip").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.timer(prefix + ".find.mapping").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.meter(prefix + ".find.rows").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.meter(prefix + ".find.errors").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.timer(prefix + ".findAll.latency").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.timer(prefix + ".findAll.round-trip").getCount()).isEqualTo(2L);
+        softly.assertThat(registry.timer(prefix + ".findAll.mapping").getCount()).isEqualTo(2L);
+        softly.assertThat(registry.meter(prefix + ".findAll.rows").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.timer(prefix + ".remove.latency").getCount()).isEqualTo(1L);
+        softly.assertThat(registry.timer(prefix + ".remove.round-trip").getCount()).isEqualTo(2L);
+        softly.assertThat(registry.meter(prefix + ".remove.errors").getCount()).isZero();
+        softly.assertAll();
+    }
+
+    @Test
+    public void should_compute_latency_percentiles_over_recent_values() {
+        final AtomicLong time = new AtomicLong();
+        final HdrHistogramReservoir reservoir = new HdrHistogramReservoir(60_000L, new Clock() {
+            @Override
+            public long getTick() {
+                return time.get() * 1_000_000L;
+            }
+
+            @Override
+            public long getTime() {
+                return time.get();
+            }
+        });
+        for (int i = 0; i < 1_000; i++) {
+            reservoir.update(1_000L);
+        }
+        assertThat(reservoir.getSnapshot().get99thPercentile()).isEqualTo(1_000.);
+        time.set(70_000L);
+
+        reservoir.update(50_000L);
+
+        assertThat(reservoir.getSnapshot().get99thPercentile()).isBetween(49_000., 51_000.);
+    }
+
     @Test
     public void should_filter_list_of_visible_vessels_by_name_fragment() {
         final String inputNameFragment = "ENT";
@@ -198,6 +768,37 @@ public class VesselServiceIT {
                 .doesNotContain(nonMatchingGlobalVessel, nonMatchingHiddenVessel, nonMatchingLocalVessel);
     }
 
+    @Test
+    public void should_filter_list_of_visible_vessels_by_name_fragment_with_index() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final CenterReference otherCenter = CenterReference.of("456");
+        final Vessel loadedGlobalVessel = initVessel("Global ENT", ALL_CENTERS, otherCenter).build();
+        final Vessel loadedHiddenVessel = initVessel("Hidden ENT", CREATION_CENTER_ONLY, otherCenter).build();
+        final Vessel removedLocalVessel = initVessel("Removed ent", CREATION_CENTER_ONLY, localCenter).build();
+        for (final Vessel vessel : new Vessel[]{loadedGlobalVessel, loadedHiddenVessel, removedLocalVessel}) {
+            this.service.update(vessel);
+        }
+        this.service.preDestroy();
+        this.service.setNameFragmentIndexEnabled(true);
+        this.service.postConstruct();
+        final Vessel matchingLocalVessel = initVessel("ent Local", CREATION_CENTER_ONLY, localCenter).build();
+        final Vessel nonMatchingLocalVessel = initVessel("Local", CREATION_CENTER_ONLY, localCenter).build();
+        final Vessel renamedGlobalVessel = Vessel.fromUuid(loadedGlobalVessel.getUuid())
+                .withName("Global ENTERPRISE")
+                .withCategory("Cargo")
+                .withVisibility(ALL_CENTERS)
+                .withCreationCenter(otherCenter)
+                .build();
+        for (final Vessel vessel : new Vessel[]{matchingLocalVessel, nonMatchingLocalVessel, renamedGlobalVessel}) {
+            this.service.update(vessel);
+        }
+        this.service.remove(removedLocalVessel.getUuid());
+
+        final List<Vessel> actual = this.service.findByNameFragment(localCenter, "ENT");
+
+        assertThat(actual).containsOnly(renamedGlobalVessel, matchingLocalVessel);
+    }
+
     @Test
     public void should_filter_list_of_visible_vessels_by_category() {
         final VesselCategoryReference inputCategory = VesselCategoryReference.of("cargo");
@@ -228,6 +829,215 @@ public class VesselServiceIT {
                 .doesNotContain(nonMatchingGlobalVessel, nonMatchingHiddenVessel, nonMatchingLocalVessel);
     }
 
+    @Test
+    public void should_find_summaries_of_visible_vessels() {
+        this.service.preDestroy();
+        this.service.setVisibilityCacheEnabled(true);
+        this.service.postConstruct();
+        final CenterReference localCenter = CenterReference.of("123");
+        final CenterReference otherCenter = CenterReference.of("456");
+        final Vessel globalVessel = initVessel("Global ENT", ALL_CENTERS, otherCenter).build();
+        final Vessel localVessel = initVessel("Local ENT", CREATION_CENTER_ONLY, localCenter).build();
+        final Vessel hiddenVessel = initVessel("Hidden ENT", CREATION_CENTER_ONLY, otherCenter).build();
+        for (final Vessel vessel : new Vessel[]{globalVessel, localVessel, hiddenVessel}) {
+            this.service.update(vessel);
+        }
+        final VesselSummary globalSummary = VesselSummary.from(globalVessel);
+        final VesselSummary localSummary = VesselSummary.from(localVessel);
+
+        final List<VesselSummary> all = this.service.findAllSummaries(localCenter);
+        final List<VesselSummary> byName = this.service.findSummariesByNameFragment(localCenter, "ENT");
+        final List<VesselSummary> byCategory = this.service.findSummariesByCategory(localCenter, VesselCategoryReference.of("Cargo"));
+        this.service.findAll(localCenter);
+        final List<VesselSummary> allFromCache = this.service.findAllSummaries(localCenter);
+
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(all).containsOnly(globalSummary, localSummary);
+        softly.assertThat(byName).containsOnly(globalSummary, localSummary);
+        softly.assertThat(byCategory).containsOnly(globalSummary, localSummary);
+        softly.assertThat(allFromCache).containsOnly(globalSummary, localSummary);
+        softly.assertAll();
+    }
+
+    @Test
+    public void should_move_vessel_between_categories_on_update() {
+        final VesselCategoryReference formerCategory = VesselCategoryReference.of("cargo");
+        final VesselCategoryReference newCategory = VesselCategoryReference.of("windsurf");
+        final CenterReference localCenter = CenterReference.of("123");
+        final Vessel formerVessel = initVessel("Le_Name", ALL_CENTERS, localCenter)
+                .withCategory(formerCategory).build();
+        this.service.update(formerVessel);
+        final Vessel inputVessel = Vessel.fromUuid(formerVessel.getUuid())
+                .withName("Le_Name")
+                .withCategory(newCategory)
+                .withVisibility(ALL_CENTERS)
+                .withCreationCenter(localCenter)
+                .build();
+
+        this.service.update(inputVessel);
+
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(this.service.findByCategory(localCenter, formerCategory)).isEmpty();
+        softly.assertThat(this.service.findByCategory(localCenter, newCategory)).containsExactly(inputVessel);
+        softly.assertThat(cqlUnit.session.execute("SELECT * FROM vessels_by_category")).hasSize(1);
+        softly.assertAll();
+    }
+
+    @Test
+    public void should_move_vessels_between_categories_and_visibilities_on_bulk_update() {
+        final VesselCategoryReference formerCategory = VesselCategoryReference.of("cargo");
+        final VesselCategoryReference newCategory = VesselCategoryReference.of("windsurf");
+        final CenterReference localCenter = CenterReference.of("123");
+        final Vessel formerVessel = initVessel("Le_Name", ALL_CENTERS, localCenter)
+                .withCategory(formerCategory).build();
+        final Vessel formerGlobalVessel = initVessel("Other_Name", ALL_CENTERS, localCenter)
+                .withCategory(formerCategory).build();
+        this.service.updateAll(Arrays.asList(formerVessel, formerGlobalVessel));
+        final Vessel inputVessel = Vessel.fromUuid(formerVessel.getUuid())
+                .withName("Le_Name")
+                .withCategory(newCategory)
+                .withVisibility(ALL_CENTERS)
+                .withCreationCenter(localCenter)
+                .build();
+        final Vessel localVessel = Vessel.fromUuid(formerGlobalVessel.getUuid())
+                .withName("Other_Name")
+                .withCategory(formerCategory)
+                .withVisibility(CREATION_CENTER_ONLY)
+                .withCreationCenter(localCenter)
+                .build();
+
+        final Map<Vessel, Throwable> failures = this.service.updateAll(Arrays.asList(inputVessel, localVessel));
+
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(failures).isEmpty();
+        softly.assertThat(this.service.findByCategory(localCenter, formerCategory)).containsExactly(localVessel);
+        softly.assertThat(this.service.findByCategory(localCenter, newCategory)).containsExactly(inputVessel);
+        softly.assertThat(this.service.findAll(CenterReference.of("456"))).containsExactly(inputVessel);
+        softly.assertThat(cqlUnit.session.execute("SELECT * FROM vessels_by_category")).hasSize(2);
+        softly.assertThat(cqlUnit.session.execute("SELECT * FROM vessels")).hasSize(2);
+        softly.assertAll();
+    }
+
+    @Test
+    public void should_backfill_category_table() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final Vessel vessel = initVessel("Le_Name", ALL_CENTERS, localCenter).build();
+        cqlUnit.session.execute("INSERT INTO vessels (visibility, uuid, vessel, name, category) VALUES ('_ALL', "
+                + vessel.getUuid() + ", {name: 'Le_Name', category: 'Cargo', visibility: 'ALL_CENTERS', "
+                + "creation_center: '123'}, 'Le_Name', 'Cargo')");
+        assertThat(this.service.findByCategory(localCenter, VesselCategoryReference.of("Cargo"))).isEmpty();
+
+        final long copied = CategoryTableBackfill.of(cqlUnit.session).backfill();
+
+        assertThat(copied).isEqualTo(1L);
+        assertThat(this.service.findByCategory(localCenter, VesselCategoryReference.of("Cargo"))).containsExactly(vessel);
+    }
+
+    @Test
+    public void should_export_all_vessels_by_token_range()
+            throws IOException {
+        final List<Vessel> inputVessels = saveVesselsForExport();
+        final Path directory = Files.createTempDirectory("vessels");
+
+        final long exported = VesselExporter.builder(cqlUnit.session, directory)
+                .withParallelism(4)
+                .withSplits(16)
+                .withFetchSize(10)
+                .build()
+                .export();
+
+        assertThat(exported).isEqualTo(inputVessels.size());
+        try (final Stream<Vessel> vessels = VesselExporter.read(directory)) {
+            assertThat(vessels.collect(Collectors.toList())).containsOnlyElementsOf(inputVessels)
+                    .hasSameSizeAs(inputVessels);
+        }
+    }
+
+    @Test
+    public void should_resume_interrupted_export()
+            throws IOException {
+        final List<Vessel> inputVessels = saveVesselsForExport();
+        final Path directory = Files.createTempDirectory("vessels");
+        final VesselExporter exporter = VesselExporter.builder(cqlUnit.session, directory)
+                .withSplits(16)
+                .build();
+        exporter.export();
+        final Path rangeFile;
+        try (final Stream<Path> files = Files.list(directory)) {
+            rangeFile = files.filter(file -> file.toString().endsWith(".vessels"))
+                    .filter(file -> file.toFile().length() > 6L)
+                    .findFirst()
+                    .orElseThrow(IllegalStateException::new);
+        }
+        Files.delete(rangeFile);
+
+        final long exported = exporter.export();
+
+        assertThat(exported).isPositive().isLessThan(inputVessels.size());
+        try (final Stream<Vessel> vessels = VesselExporter.read(directory)) {
+            assertThat(vessels.collect(Collectors.toList())).containsOnlyElementsOf(inputVessels)
+                    .hasSameSizeAs(inputVessels);
+        }
+    }
+
+    @Test
+    public void should_load_vessels_from_sstables()
+            throws IOException {
+        final CenterReference localCenter = CenterReference.of("123");
+        final List<Vessel> inputVessels = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            inputVessels.add(initVessel("Global " + i, ALL_CENTERS, localCenter).build());
+            inputVessels.add(initVessel("Local " + i, CREATION_CENTER_ONLY, localCenter)
+                    .withDeparture("Brest", Instant.now().minusSeconds(i)).build());
+        }
+        assertThat(this.service.updateAll(inputVessels)).isEmpty();
+        final Path exportDirectory = Files.createTempDirectory("vessels");
+        VesselExporter.builder(cqlUnit.session, exportDirectory).build().export();
+        final String[] tables = {"vessels", "vessels_by_uuid", "vessels_by_category", "vessels_by_departure_port"};
+        for (final String table : tables) {
+            cqlUnit.session.execute("TRUNCATE " + table);
+        }
+        final Path directory = Files.createTempDirectory("sstables");
+
+        final long written;
+        try (final VesselSSTableWriter writer = VesselSSTableWriter.builder(cqlUnit.session, directory).build();
+             final Stream<Vessel> vessels = VesselExporter.read(exportDirectory)) {
+            written = writer.write(vessels.iterator());
+        }
+        for (final String table : tables) {
+            StorageService.instance.bulkLoad(directory.resolve(cqlUnit.session.getLoggedKeyspace()).resolve(table).toString());
+        }
+
+        final Vessel localVessel = inputVessels.get(1);
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(written).isEqualTo(inputVessels.size());
+        softly.assertThat(this.service.findAll(localCenter)).containsOnlyElementsOf(inputVessels)
+                .hasSameSizeAs(inputVessels);
+        softly.assertThat(this.service.findAll(CenterReference.of("456"))).hasSize(25);
+        softly.assertThat(this.service.findByCategory(localCenter, VesselCategoryReference.of("Cargo")))
+                .hasSameSizeAs(inputVessels);
+        softly.assertThat(this.service.find(localVessel.getUuid())).contains(localVessel);
+        softly.assertThat(this.service.findByDeparturePort(PortReference.of("Brest"))).hasSize(25);
+        softly.assertAll();
+    }
+
+    /**
+     * Save vessels to be exported.
+     *
+     * @return added vessels
+     */
+    private List<Vessel> saveVesselsForExport() {
+        final CenterReference localCenter = CenterReference.of("123");
+        final List<Vessel> res = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            res.add(initVessel("Global " + i, ALL_CENTERS, localCenter).build());
+            res.add(initVessel("Local " + i, CREATION_CENTER_ONLY, localCenter)
+                    .withDeparture("Brest", Instant.ofEpochMilli(1_500_000_000_000L + i)).build());
+        }
+        assertThat(this.service.updateAll(res)).isEmpty();
+        return res;
+    }
+
     /**
      * Initialize vessel builder instance with visibility details.
      *
@@ -281,4 +1091,46 @@ public class VesselServiceIT {
                 .doesNotContain(vesselFromOtherPort, vesselFromNoPort, vesselFromLongAgo);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void should_expose_list_of_vessels_that_departed_recently_by_port_in_time_order() {
+        final PortReference testPort = PortReference.of("Le Havre");
+        final Instant now = Instant.now();
+        final Vessel vessel1 = initVesselWithDeparture("Vessel_1", testPort, now.minusSeconds(50_000));
+        final Vessel vessel2 = initVesselWithDeparture("Vessel_2", testPort, now.minusSeconds(7_200));
+        final Vessel vessel3 = initVesselWithDeparture("Vessel_3", testPort, now.minusSeconds(30_000));
+        final Vessel vessel4 = initVesselWithDeparture("Vessel_4", testPort, now.minusSeconds(60));
+        this.service.updateAll(Arrays.asList(vessel1, vessel2, vessel3, vessel4));
+
+        final List<Vessel> actual = this.service.findByDeparturePortAsync(testPort).join();
+
+        assertThat(actual).containsExactly(vessel4, vessel2, vessel3, vessel1);
+    }
+
+    @Test
+    public void should_expose_vessels_through_configured_session() {
+        final Properties properties = new Properties();
+        properties.setProperty("cassandra.contactPoints", "127.0.0.1");
+        properties.setProperty("cassandra.port", "9142");
+        properties.setProperty("cassandra.connectionsPerHost", "1");
+        properties.setProperty("cassandra.maxRequestsPerConnection", "2048");
+        properties.setProperty("cassandra.compression", "LZ4");
+        properties.setProperty("cassandra.protocolVersion", "V4");
+        final CassandraSessionProducer sessionProducer = new CassandraSessionProducer();
+        sessionProducer.setConfiguration(CassandraConfiguration.from(properties));
+        sessionProducer.init();
+        final VesselService otherService = new VesselService();
+        try {
+            otherService.setSession(sessionProducer.getSession());
+            otherService.postConstruct();
+            final Vessel vessel = initVessel("Vessel_1", ALL_CENTERS, CenterReference.of("123")).build();
+            otherService.update(vessel);
+
+            assertThat(otherService.find(vessel.getUuid())).contains(vessel);
+            assertThat(this.service.find(vessel.getUuid())).contains(vessel);
+        } finally {
+            otherService.preDestroy();
+            sessionProducer.dispose();
+        }
+    }
+
+}